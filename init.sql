@@ -5,6 +5,9 @@ CREATE DATABASE IF NOT EXISTS test
 
 USE cosmoport;
 
+-- The table is recreated in its baseline schema; dropping the history lets the migrations baseline and bring it up to date.
+DROP TABLE IF EXISTS flyway_schema_history;
+DROP TABLE IF EXISTS ship_rating_job;
 DROP TABLE IF EXISTS ship;
 
 CREATE TABLE ship
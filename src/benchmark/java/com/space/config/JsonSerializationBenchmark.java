@@ -0,0 +1,85 @@
+package com.space.config;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.model.Ship;
+import com.space.service.ShipDataSets;
+import com.space.service.cache.ShipJsonCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ship list serialization: the reflective field-visibility mapper, the mapper configured by
+ * {@link WebConfig#configureMessageConverters} with {@link ShipJsonSerializer}, and the same with a warm
+ * {@link ShipJsonCache}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonSerializationBenchmark {
+
+    @Param({"3", "100", "1000"})
+    public int pageSize;
+
+    @Param({"reflective", "streaming", "cached"})
+    public String serializer;
+
+    private ObjectMapper mapper;
+    private List<Ship> ships;
+
+    @Setup
+    public void setup() {
+        if (serializer.equals("reflective")) {
+            mapper = new ObjectMapper()
+                    .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                    .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        } else {
+            WebConfig webConfig = new WebConfig();
+            if (serializer.equals("cached")) {
+                ShipJsonCache jsonCache = new ShipJsonCache();
+                jsonCache.setEnabled(true);
+                jsonCache.setMaxSize(pageSize);
+                jsonCache.afterPropertiesSet();
+                webConfig.setJsonCache(jsonCache);
+            }
+            List<HttpMessageConverter<?>> converters = new ArrayList<>();
+            webConfig.configureMessageConverters(converters);
+            mapper = ((MappingJackson2HttpMessageConverter) converters.get(0)).getObjectMapper();
+        }
+
+        Random random = new Random(42);
+        ships = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Ship ship = ShipDataSets.randomShip(random, i);
+            ship.setId((long) i + 1);
+            ship.setRating(random.nextInt(10000) / 100D);
+            ship.setVersion(0L);
+            ships.add(ship);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeShips() throws Exception {
+        return mapper.writeValueAsBytes(ships);
+    }
+}
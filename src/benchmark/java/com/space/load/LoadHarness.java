@@ -0,0 +1,260 @@
+package com.space.load;
+
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.service.ShipDataSets;
+import com.space.service.ShipService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Drives the full controller stack on embedded H2 with a mixed read/write workload from concurrent clients
+ * and prints throughput and latency percentiles per endpoint.
+ * <p>
+ * Arguments are {@code key=value}: {@code ships} (fleet size, 100000), {@code clients} (16),
+ * {@code warmup} and {@code duration} in seconds (10, 60) and {@code seed} (42). Feature switches such as
+ * {@code -Dship.cache.query.enabled=true} are picked up from system properties.
+ */
+public class LoadHarness {
+    private static final String[] PLANETS = ShipDataSets.PLANETS;
+    private static final String[] TYPES = {"TRANSPORT", "MILITARY", "MERCHANT"};
+    private static final String[] ORDERS = {"ID", "SPEED", "DATE", "RATING"};
+
+    private final MockMvc mockMvc;
+    private final int ships;
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private LoadHarness(MockMvc mockMvc, int ships) {
+        this.mockMvc = mockMvc;
+        this.ships = ships;
+        for (String name : new String[]{"GET /ships", "GET /ships?deep", "GET /ships/count", "GET /ships/page",
+                "GET /ships/{id}", "POST /ships", "POST /ships/{id}", "DELETE /ships/{id}"}) {
+            endpoints.put(name, new Endpoint());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int ships = Integer.parseInt(options.getOrDefault("ships", "100000"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "16"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(TestDataSourceConfig.class, WebConfig.class);
+        context.refresh();
+        try {
+            long start = System.nanoTime();
+            ShipDataSets.seed(context.getBean(ShipService.class), ships, seed);
+            System.out.printf("Seeded %d ships in %d ms%n", ships,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            LoadHarness harness = new LoadHarness(MockMvcBuilders.webAppContextSetup(context).build(), ships + 40);
+            harness.run(clients, warmup, duration, seed);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void run(int clients, int warmup, int duration, long seed) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            Random random = new Random(seed + i);
+            Thread client = new Thread(() -> {
+                try {
+                    while (running) step(random);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            client.setDaemon(true);
+            client.start();
+        }
+
+        TimeUnit.SECONDS.sleep(warmup);
+        for (Endpoint endpoint : endpoints.values()) endpoint.reset();
+        recording = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(duration);
+        recording = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running = false;
+        done.await();
+
+        report(clients, seconds);
+    }
+
+    private void step(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 35) {
+            call("GET /ships", get("/rest/ships" + filters(random) + "&order=" + pick(random, ORDERS)
+                    + "&pageNumber=" + random.nextInt(5) + "&pageSize=" + (3 + random.nextInt(18))));
+        } else if (roll < 45) {
+            call("GET /ships?deep", get("/rest/ships" + filters(random) + "&order=" + pick(random, ORDERS)
+                    + "&pageNumber=" + (50 + random.nextInt(450)) + "&pageSize=20"));
+        } else if (roll < 60) {
+            call("GET /ships/count", get("/rest/ships/count" + filters(random)));
+        } else if (roll < 70) {
+            call("GET /ships/page", get("/rest/ships/page" + filters(random) + "&order=" + pick(random, ORDERS)
+                    + "&pageNumber=" + random.nextInt(10) + "&pageSize=20"));
+        } else if (roll < 85) {
+            call("GET /ships/{id}", get("/rest/ships/" + (1 + random.nextInt(ships))));
+        } else if (roll < 92) {
+            MvcResult result = call("POST /ships", post("/rest/ships")
+                    .contentType(MediaType.APPLICATION_JSON_UTF8).content(shipJson(random)));
+            if (result != null && result.getResponse().getStatus() == 200) {
+                Long id = createdId(result);
+                if (id != null) {
+                    createdIds.add(id);
+                } else if (recording) endpoints.get("POST /ships").errors.increment();
+            }
+        } else if (roll < 97) {
+            call("POST /ships/{id}", post("/rest/ships/" + (1 + random.nextInt(ships)))
+                    .contentType(MediaType.APPLICATION_JSON_UTF8)
+                    .content("{\"speed\":" + speed(random) + ",\"crewSize\":" + (1 + random.nextInt(9999)) + "}"));
+        } else {
+            Long id = createdIds.poll();
+            call("DELETE /ships/{id}", delete("/rest/ships/" + (id != null ? id : 1 + random.nextInt(ships))));
+        }
+    }
+
+    private MvcResult call(String name, RequestBuilder request) {
+        Endpoint endpoint = endpoints.get(name);
+        long start = System.nanoTime();
+        try {
+            MvcResult result = mockMvc.perform(request).andReturn();
+            // With ship.async.enabled the handler only hands off; the response exists after the async dispatch.
+            if (result.getRequest().isAsyncStarted()) result = mockMvc.perform(asyncDispatch(result)).andReturn();
+            if (recording) {
+                endpoint.latency.recordValue(System.nanoTime() - start);
+                if (result.getResponse().getStatus() >= 500) endpoint.errors.increment();
+            }
+            return result;
+        } catch (Exception e) {
+            if (recording) endpoint.errors.increment();
+            return null;
+        }
+    }
+
+    private static String filters(Random random) {
+        StringBuilder query = new StringBuilder("?");
+        if (random.nextInt(4) == 0) query.append("name=").append(random.nextInt(100)).append('&');
+        if (random.nextInt(3) == 0) query.append("planet=").append(pick(random, PLANETS)).append('&');
+        if (random.nextInt(3) == 0) query.append("shipType=").append(pick(random, TYPES)).append('&');
+        if (random.nextInt(4) == 0) query.append("isUsed=").append(random.nextBoolean()).append('&');
+        if (random.nextInt(4) == 0) {
+            int year = 2800 + random.nextInt(200);
+            query.append("after=").append(yearStart(year)).append("&before=").append(yearStart(year + 20)).append('&');
+        }
+        if (random.nextInt(4) == 0) query.append("minSpeed=0.").append(10 + random.nextInt(40)).append('&');
+        if (random.nextInt(4) == 0) query.append("maxCrewSize=").append(100 + random.nextInt(9000)).append('&');
+        if (random.nextInt(5) == 0) query.append("minRating=").append(random.nextInt(5)).append('&');
+        query.setLength(query.length() - 1);
+        return query.length() == 0 ? "?" : query.toString();
+    }
+
+    private static String shipJson(Random random) {
+        return "{\"name\":\"Load-" + random.nextInt(1_000_000) + "\"," +
+                "\"planet\":\"" + pick(random, PLANETS) + "\"," +
+                "\"shipType\":\"" + pick(random, TYPES) + "\"," +
+                "\"prodDate\":" + yearStart(2800 + random.nextInt(219)) + "," +
+                "\"isUsed\":" + random.nextBoolean() + "," +
+                "\"speed\":" + speed(random) + "," +
+                "\"crewSize\":" + (1 + random.nextInt(9999)) + "}";
+    }
+
+    /**
+     * The id in a created ship's body, or {@code null} if the body can not be parsed.
+     */
+    private static Long createdId(MvcResult result) {
+        try {
+            String body = result.getResponse().getContentAsString();
+            int start = body.indexOf("\"id\":");
+            if (start < 0) return null;
+            start += 5;
+            int end = start;
+            while (end < body.length() && Character.isDigit(body.charAt(end))) end++;
+            return end == start ? null : Long.valueOf(body.substring(start, end));
+        } catch (UnsupportedEncodingException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String speed(Random random) {
+        return "0." + (10 + random.nextInt(90));
+    }
+
+    private static long yearStart(int year) {
+        return (year - 1970) * 31_556_952_000L;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private void report(int clients, double seconds) {
+        System.out.printf("%n%d clients, %.1f s measured%n", clients, seconds);
+        System.out.printf("%-20s %10s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        long total = 0;
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram histogram = entry.getValue().latency.getIntervalHistogram();
+            total += histogram.getTotalCount();
+            lines.add(String.format("%-20s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d", entry.getKey(),
+                    histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()),
+                    entry.getValue().errors.sum()));
+        }
+        lines.forEach(System.out::println);
+        System.out.printf("%-20s %10d %10.1f%n", "total", total, total / seconds);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Endpoint {
+        private final Recorder latency = new Recorder(3);
+        private final LongAdder errors = new LongAdder();
+
+        void reset() {
+            latency.reset();
+            errors.reset();
+        }
+    }
+}
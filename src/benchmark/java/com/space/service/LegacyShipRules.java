@@ -0,0 +1,58 @@
+package com.space.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * The Calendar and BigDecimal based validation and rating that {@link ShipRules} replaced, kept as a baseline.
+ */
+final class LegacyShipRules {
+    private static final int CURRENT_YEAR = 3019;
+
+    private LegacyShipRules() {
+    }
+
+    static double calcShipRating(double speed, double coefficient, Date shipProdYear) {
+        Calendar date = Calendar.getInstance();
+        date.setTimeInMillis(shipProdYear.getTime());
+        double rating = (80 * speed * coefficient) / (CURRENT_YEAR - date.get(Calendar.YEAR) + 1);
+        return new BigDecimal(rating).setScale(2, RoundingMode.HALF_DOWN).doubleValue();
+    }
+
+    static boolean isValidParams(Object param) {
+        if (param instanceof String) {
+            String str = (String) param;
+            return !str.isEmpty() & str.length() <= 50;
+        }
+
+        if (param instanceof Enum) return true;
+
+        if (param instanceof Date) {
+            Date date = (Date) param;
+            if (date.getTime() > 0) {
+                Calendar calendar = Calendar.getInstance();
+                calendar.set(2800, Calendar.JANUARY, 1, 0, 0, 0);
+                if (date.after(calendar.getTime())) {
+                    calendar.set(CURRENT_YEAR, Calendar.getInstance().get(Calendar.MONTH), Calendar.DATE);
+                    return date.before(calendar.getTime());
+                }
+            }
+        }
+
+        if (param instanceof Boolean) return true;
+
+        if (param instanceof Double) {
+            double d = (double) param;
+            return d >= 0.01D & d <= 0.99D;
+        }
+
+        if (param instanceof Integer) {
+            int i = (int) param;
+            return i >= 1 & i <= 9999;
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package com.space.service;
+
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Embedded H2 fleets of a given size for benchmarks and load runs. Data is generated from a fixed seed,
+ * so every run queries the same rows.
+ */
+public final class ShipDataSets {
+    public static final String[] PLANETS = {"Earth", "Mars", "Jupiter", "Saturn", "Uranus", "Neptune", "Venus",
+            "Mercury", "Pluto", "Titan", "Europa", "Ganymede", "Callisto", "Io", "Triton", "Ceres", "Eris",
+            "Sedna", "Makemake", "Haumea"};
+    private static final String[] NAMES = {"Orion", "Daedalus", "Eagle", "Nostromo", "Serenity", "Voyager",
+            "Falcon", "Rocinante", "Prometheus", "Odyssey", "Endeavour", "Phoenix"};
+    private static final int CHUNK = 10_000;
+
+    private ShipDataSets() {
+    }
+
+    /**
+     * Starts the service layer over a fresh H2 database holding the 40 test ships plus {@code ships} generated ones.
+     */
+    public static AnnotationConfigApplicationContext start(int ships) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TestDataSourceConfig.class);
+        seed(context.getBean(ShipService.class), ships, 42);
+        return context;
+    }
+
+    /**
+     * Creates {@code ships} generated ships through {@link ShipService#createShips}.
+     */
+    public static void seed(ShipService service, int ships, long seed) {
+        Random random = new Random(seed);
+        for (int from = 0; from < ships; from += CHUNK) {
+            List<Ship> chunk = new ArrayList<>(CHUNK);
+            for (int i = from; i < Math.min(from + CHUNK, ships); i++) chunk.add(randomShip(random, i));
+            service.createShips(chunk);
+        }
+    }
+
+    public static Ship randomShip(Random random, int number) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        // clear() drops the milliseconds of the current time, which set() keeps.
+        calendar.clear();
+        calendar.set(2800 + random.nextInt(219), random.nextInt(12), 1 + random.nextInt(28), 0, 0, 0);
+
+        Ship ship = new Ship();
+        ship.setName(NAMES[random.nextInt(NAMES.length)] + "-" + number);
+        ship.setPlanet(PLANETS[random.nextInt(PLANETS.length)]);
+        ship.setShipType(ShipType.values()[random.nextInt(ShipType.values().length)]);
+        ship.setProdDate(new Date(calendar.getTimeInMillis()));
+        ship.setUsed(random.nextBoolean());
+        ship.setSpeed((1 + random.nextInt(99)) / 100D);
+        ship.setCrewSize(1 + random.nextInt(9999));
+        return ship;
+    }
+}
@@ -0,0 +1,89 @@
+package com.space.service;
+
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.model.ShipsPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service methods against embedded H2 holding {@code ships} generated ships.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ShipServiceEndToEndBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int ships;
+
+    private AnnotationConfigApplicationContext context;
+    private ShipService service;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = ShipDataSets.start(ships);
+        service = context.getBean(ShipService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Ship> firstPageById() {
+        return service.getShipsList(null, null, null, null, null, null, null, null, null, null, null, null,
+                ShipOrder.ID, 0, 20);
+    }
+
+    @Benchmark
+    public List<Ship> filteredPageBySpeed() {
+        return service.getShipsList(null, "Mars", ShipType.MILITARY, null, null, true, 0.2, 0.8, null, null,
+                null, null, ShipOrder.SPEED, 0, 20);
+    }
+
+    @Benchmark
+    public List<Ship> nameSearch() {
+        return service.getShipsList("Orion-1", null, null, null, null, null, null, null, null, null, null, null,
+                ShipOrder.ID, 0, 20);
+    }
+
+    @Benchmark
+    public Integer filteredCount() {
+        return service.getShipsCount(null, "Mars", ShipType.MILITARY, null, null, true, 0.2, 0.8, null, null,
+                null, null);
+    }
+
+    @Benchmark
+    public ShipsPage filteredPageWithCount() {
+        return service.getShipsPage(null, "Mars", null, null, null, null, null, null, 100, 5000,
+                null, null, ShipOrder.RATING, 1, 20);
+    }
+
+    @Benchmark
+    public ResponseEntity<Ship> getShip() {
+        return service.getShip(1L + ThreadLocalRandom.current().nextInt(ships + 40));
+    }
+}
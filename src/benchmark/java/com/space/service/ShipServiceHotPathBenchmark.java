@@ -0,0 +1,117 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rating, validation and predicate building of {@link ShipServiceImpl} in isolation. The {@code legacy*}
+ * benchmarks run the previous Calendar and BigDecimal based code for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ShipServiceHotPathBenchmark {
+    private final ShipServiceImpl service = new ShipServiceImpl();
+    private final ShipRules rules = new ShipRules(3019);
+
+    private Ship ship;
+    private Date prodDate;
+    private ShipFilter filter;
+
+    @Setup
+    public void setup() {
+        ship = ShipDataSets.randomShip(new Random(42), 0);
+        prodDate = ship.getProdDate();
+        filter = new ShipFilter("Orion", "Mars", ShipType.MILITARY, 26192246400000L, 33134745600000L, true,
+                0.1, 0.9, 10, 5000, 0.5, 20.0);
+    }
+
+    @Benchmark
+    public double calcShipRating() {
+        return service.calcShipRating(ship.getSpeed(), 0.5, prodDate);
+    }
+
+    @Benchmark
+    public double legacyCalcShipRating() {
+        return LegacyShipRules.calcShipRating(ship.getSpeed(), 0.5, prodDate);
+    }
+
+    @Benchmark
+    public boolean isValidShip() {
+        return rules.isValidText(ship.getName()) & rules.isValidText(ship.getPlanet()) &
+                rules.isValidShipType(ship.getShipType()) & rules.isValidProdDate(prodDate) &
+                rules.isValidSpeed(ship.getSpeed()) & rules.isValidCrewSize(ship.getCrewSize());
+    }
+
+    @Benchmark
+    public boolean legacyIsValidShip() {
+        return LegacyShipRules.isValidParams(ship.getName()) & LegacyShipRules.isValidParams(ship.getPlanet()) &
+                LegacyShipRules.isValidParams(ship.getShipType()) & LegacyShipRules.isValidParams(prodDate) &
+                LegacyShipRules.isValidParams(ship.getSpeed()) & LegacyShipRules.isValidParams(ship.getCrewSize());
+    }
+
+    @Benchmark
+    public boolean isValidProdDate() {
+        return rules.isValidProdDate(prodDate);
+    }
+
+    @Benchmark
+    public boolean legacyIsValidProdDate() {
+        return LegacyShipRules.isValidParams(prodDate);
+    }
+
+    @Benchmark
+    public double getCoefficient() {
+        return service.getCoefficient(ship);
+    }
+
+    @Benchmark
+    public Predicate toPredicate(Criteria criteria) {
+        return service.toPredicate(criteria.root, criteria.criteriaBuilder, filter);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Criteria {
+        AnnotationConfigApplicationContext context;
+        CriteriaBuilder criteriaBuilder;
+        Root<Ship> root;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = ShipDataSets.start(0);
+            criteriaBuilder = context.getBean(EntityManagerFactory.class).getCriteriaBuilder();
+            CriteriaQuery<Ship> query = criteriaBuilder.createQuery(Ship.class);
+            root = query.from(Ship.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+}
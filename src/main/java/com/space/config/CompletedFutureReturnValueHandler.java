@@ -0,0 +1,89 @@
+package com.space.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handles a {@link CompletableFuture} that is already complete, as returned when controller calls run inline,
+ * like its value, without starting async processing. Other futures go to the regular handlers.
+ */
+public class CompletedFutureReturnValueHandler implements HandlerMethodReturnValueHandler {
+    private final HandlerMethodReturnValueHandlerComposite handlers = new HandlerMethodReturnValueHandlerComposite();
+
+    public CompletedFutureReturnValueHandler(List<HandlerMethodReturnValueHandler> handlers) {
+        this.handlers.addHandlers(handlers);
+    }
+
+    /**
+     * Puts the handler in front of the adapter's handlers, ahead of the built-in one for futures.
+     */
+    public static void install(RequestMappingHandlerAdapter adapter) {
+        List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(adapter.getReturnValueHandlers());
+        handlers.add(0, new CompletedFutureReturnValueHandler(adapter.getReturnValueHandlers()));
+        adapter.setReturnValueHandlers(handlers);
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return CompletableFuture.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        CompletableFuture<?> future = (CompletableFuture<?>) returnValue;
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            handlers.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            return;
+        }
+
+        Object value = future.join();
+        handlers.handleReturnValue(value, new ValueParameter(returnType, value), mavContainer, webRequest);
+    }
+
+    /**
+     * The method's return type with the future's type argument in place of the future.
+     */
+    private static final class ValueParameter extends MethodParameter {
+        private final Class<?> type;
+        private final Type genericType;
+
+        ValueParameter(MethodParameter original, Object value) {
+            super(original);
+            ResolvableType valueType = ResolvableType.forMethodParameter(original).getGeneric();
+            this.type = value != null ? value.getClass() : valueType.resolve(Object.class);
+            this.genericType = valueType.getType();
+        }
+
+        private ValueParameter(ValueParameter original) {
+            super(original);
+            this.type = original.type;
+            this.genericType = original.genericType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return type;
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return genericType;
+        }
+
+        @Override
+        public ValueParameter clone() {
+            return new ValueParameter(this);
+        }
+    }
+}
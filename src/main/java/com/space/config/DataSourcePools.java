@@ -0,0 +1,108 @@
+package com.space.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds pooled data sources from {@code <prefix>.*} properties, see {@code application.properties}.
+ */
+public final class DataSourcePools {
+
+    private DataSourcePools() {
+    }
+
+    public static HikariDataSource create(PropertyResolver properties, String prefix, PoolMetrics metrics) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(properties.getProperty(prefix + ".pool.name", prefix));
+        config.setJdbcUrl(properties.getRequiredProperty(prefix + ".url"));
+        config.setUsername(properties.getProperty(prefix + ".username"));
+        config.setPassword(properties.getProperty(prefix + ".password"));
+        String driver = properties.getProperty(prefix + ".driver");
+        if (driver != null && !driver.isEmpty()) config.setDriverClassName(driver);
+
+        config.setMinimumIdle(properties.getProperty(prefix + ".pool.min-idle", Integer.class, 5));
+        config.setMaximumPoolSize(properties.getProperty(prefix + ".pool.max-size", Integer.class, 20));
+        config.setConnectionTimeout(properties.getProperty(prefix + ".pool.connection-timeout-ms", Long.class, 3000L));
+        config.setValidationTimeout(properties.getProperty(prefix + ".pool.validation-timeout-ms", Long.class, 1000L));
+        config.setIdleTimeout(properties.getProperty(prefix + ".pool.idle-timeout-ms", Long.class, 600_000L));
+        config.setMaxLifetime(properties.getProperty(prefix + ".pool.max-lifetime-ms", Long.class, 1_800_000L));
+        config.setLeakDetectionThreshold(properties.getProperty(prefix + ".pool.leak-detection-ms", Long.class, 0L));
+        String validationQuery = properties.getProperty(prefix + ".pool.validation-query");
+        if (validationQuery != null && !validationQuery.isEmpty()) config.setConnectionTestQuery(validationQuery);
+
+        if (config.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+            config.addDataSourceProperty("useCursorFetch", "true");
+            config.addDataSourceProperty("prepStmtCacheSize",
+                    properties.getProperty(prefix + ".pool.statement-cache-size", "250"));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit",
+                    properties.getProperty(prefix + ".pool.statement-cache-sql-limit", "2048"));
+        }
+        if (metrics != null) config.setMetricsTrackerFactory(metrics);
+
+        HikariDataSource dataSource = new HikariDataSource(config);
+        if (properties.getProperty(prefix + ".pool.warm-up", Boolean.class, true)) {
+            warmUp(dataSource, config.getMinimumIdle());
+        }
+        return dataSource;
+    }
+
+    /**
+     * Builds the {@code <prefix>} pool and, if {@code <prefix>.replicas} lists replica property prefixes, one pool
+     * per replica behind a {@link ReadWriteDataSource}. Replicas are configured like the primary.
+     */
+    public static DataSource createRouting(PropertyResolver properties, String prefix, PoolMetrics metrics) {
+        String[] replicaPrefixes = StringUtils.tokenizeToStringArray(properties.getProperty(prefix + ".replicas", ""), ",");
+        HikariDataSource primary = create(properties, prefix, metrics);
+        if (replicaPrefixes.length == 0) return primary;
+
+        List<HikariDataSource> replicas = new ArrayList<>(replicaPrefixes.length);
+        try {
+            for (String replicaPrefix : replicaPrefixes) replicas.add(create(properties, replicaPrefix, metrics));
+        } catch (RuntimeException e) {
+            replicas.forEach(HikariDataSource::close);
+            primary.close();
+            throw e;
+        }
+        return new ReadWriteDataSource(primary, replicas);
+    }
+
+    /**
+     * Opens and validates {@code connections} connections at once so the first requests do not pay for them.
+     */
+    static void warmUp(HikariDataSource dataSource, int connections) {
+        List<Connection> borrowed = new ArrayList<>(connections);
+        boolean warmedUp = false;
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = dataSource.getConnection();
+                borrowed.add(connection);
+                if (!connection.isValid((int) (dataSource.getValidationTimeout() / 1000) + 1)) {
+                    throw new IllegalStateException("Connection from pool " + dataSource.getPoolName() + " is not valid");
+                }
+            }
+            warmedUp = true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not warm up pool " + dataSource.getPoolName(), e);
+        } finally {
+            for (Connection connection : borrowed) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            // Whatever went wrong, the caller never gets the pool, so nothing else would close it.
+            if (!warmedUp) dataSource.close();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.space.config;
+
+import com.space.service.metrics.ShipMetrics;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records each request's latency and error status in {@link ShipMetrics}, per method and mapped path pattern.
+ * An asynchronous request is timed from its first dispatch to the completion of the last one.
+ */
+public class MetricsInterceptor implements AsyncHandlerInterceptor {
+    private static final String START_ATTRIBUTE = MetricsInterceptor.class.getName() + ".start";
+
+    private final ShipMetrics metrics;
+
+    public MetricsInterceptor(ShipMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START_ATTRIBUTE) == null) request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) return;
+
+        String endpoint = endpoint(request);
+        metrics.endpoint(endpoint).record(System.nanoTime() - (Long) start);
+
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        if (status >= 400) metrics.endpointError(endpoint, status);
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmatched");
+    }
+}
@@ -0,0 +1,116 @@
+package com.space.config;
+
+import com.space.service.metrics.LatencyHistogram;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects connection pool metrics for every pool created by {@link DataSourcePools}, keyed by pool name.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        Pool pool = new Pool(poolStats);
+        pools.put(poolName, pool);
+        return pool;
+    }
+
+    public Map<String, Pool> getPools() {
+        return Collections.unmodifiableMap(pools);
+    }
+
+    public Pool getPool(String poolName) {
+        return pools.get(poolName);
+    }
+
+    public static class Pool implements IMetricsTracker {
+        private final PoolStats poolStats;
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+        private final LatencyHistogram waitTimes = new LatencyHistogram();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final LongAdder created = new LongAdder();
+
+        Pool(PoolStats poolStats) {
+            this.poolStats = poolStats;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            created.increment();
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquisitions.increment();
+            waitNanos.add(elapsedAcquiredNanos);
+            maxWaitNanos.accumulate(elapsedAcquiredNanos);
+            waitTimes.record(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageMillis.add(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        public int getActive() {
+            return poolStats.getActiveConnections();
+        }
+
+        public int getIdle() {
+            return poolStats.getIdleConnections();
+        }
+
+        public int getPending() {
+            return poolStats.getPendingThreads();
+        }
+
+        public int getTotal() {
+            return poolStats.getTotalConnections();
+        }
+
+        public long getAcquisitions() {
+            return acquisitions.sum();
+        }
+
+        public long getWaitNanos() {
+            return waitNanos.sum();
+        }
+
+        public long getMaxWaitNanos() {
+            return maxWaitNanos.get();
+        }
+
+        public LatencyHistogram getWaitTimes() {
+            return waitTimes;
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public long getUsageMillis() {
+            return usageMillis.sum();
+        }
+
+        public long getCreated() {
+            return created.sum();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.space.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing hints for {@link ReadWriteDataSource}. Only reads wrapped in {@link #onReplica(Supplier)}
+ * go to a replica; everything else, and every read-write transaction, uses the primary.
+ */
+public final class ReadRouting {
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Runs {@code read} against a replica, unless the current request is pinned to the primary.
+     */
+    public static <T> T onReplica(Supplier<T> read) {
+        return with(Boolean.TRUE, read);
+    }
+
+    /**
+     * Runs {@code read} against the primary, also inside {@link #onReplica(Supplier)}. For results that
+     * are cached and must not be older than the last finished write.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        return with(null, read);
+    }
+
+    /**
+     * Binds {@code call} to the current thread's pin to the primary, for running it on another thread.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> call) {
+        boolean pinned = PINNED_TO_PRIMARY.get() != null;
+        return () -> {
+            Boolean previous = PINNED_TO_PRIMARY.get();
+            pinToPrimary(pinned);
+            try {
+                return call.get();
+            } finally {
+                PINNED_TO_PRIMARY.set(previous);
+            }
+        };
+    }
+
+    static void pinToPrimary(boolean pinned) {
+        if (pinned) PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        else PINNED_TO_PRIMARY.remove();
+    }
+
+    /**
+     * Whether a read on the current thread goes to a replica.
+     */
+    public static boolean useReplica() {
+        if (REPLICA_READ.get() == null || PINNED_TO_PRIMARY.get() != null) return false;
+        return !TransactionSynchronizationManager.isActualTransactionActive() ||
+                TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static <T> T with(Boolean replica, Supplier<T> read) {
+        Boolean previous = REPLICA_READ.get();
+        REPLICA_READ.set(replica);
+        try {
+            return read.get();
+        } finally {
+            REPLICA_READ.set(previous);
+        }
+    }
+}
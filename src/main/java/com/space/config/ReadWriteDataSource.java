@@ -0,0 +1,65 @@
+package com.space.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends reads marked by {@link ReadRouting} to the replicas in round-robin order and everything else to the
+ * primary. Connections are taken lazily, on the first statement, so the routing sees the transaction's
+ * read-only flag and the caller's hints rather than the state at transaction begin.
+ */
+public class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+
+    public ReadWriteDataSource(HikariDataSource primary, List<HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+
+        Router router = new Router(replicas.size());
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < replicas.size(); i++) targets.put(i, replicas.get(i));
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private static final class Router extends AbstractRoutingDataSource {
+        private final AtomicInteger next = new AtomicInteger();
+        private final int replicaCount;
+
+        Router(int replicaCount) {
+            this.replicaCount = replicaCount;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (replicaCount == 0 || !ReadRouting.useReplica()) return null;
+            return Math.floorMod(next.getAndIncrement(), replicaCount);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.space.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pins a client's reads to the primary for {@code window} milliseconds after its last write finished, so it does not
+ * read its own change back from a lagging replica. Clients are told apart by the {@code X-Client-Id} header,
+ * or by remote address without it.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final int MAX_CLIENTS = 100_000;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(long window) {
+        this.recentWriters = window > 0 ?
+                Caffeine.newBuilder().maximumSize(MAX_CLIENTS).expireAfterWrite(window, TimeUnit.MILLISECONDS).build() :
+                null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (recentWriters == null) return true;
+
+        String client = client(request);
+        if (isRead(request.getMethod())) {
+            if (recentWriters.getIfPresent(client) != null) ReadRouting.pinToPrimary(true);
+        } else {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadRouting.pinToPrimary(false);
+        // The window has to start when the write is committed, not when it arrived: a bulk write can outlast it.
+        if (recentWriters != null && !isRead(request.getMethod())) recentWriters.put(client(request), Boolean.TRUE);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadRouting.pinToPrimary(false);
+    }
+
+    private static boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private static String client(HttpServletRequest request) {
+        String client = request.getHeader(CLIENT_ID_HEADER);
+        return client != null && !client.isEmpty() ? client : request.getRemoteAddr();
+    }
+}
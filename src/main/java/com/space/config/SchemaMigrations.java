@@ -0,0 +1,27 @@
+package com.space.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.core.env.PropertyResolver;
+
+import javax.sql.DataSource;
+
+/**
+ * Applies the versioned scripts in {@code db/migration} with Flyway, configured from {@code <prefix>.migration.*}
+ * properties. A schema created by {@code init.sql} before the migrations existed is baselined at version 1.
+ */
+public final class SchemaMigrations {
+
+    private SchemaMigrations() {
+    }
+
+    public static Flyway migrate(PropertyResolver properties, String prefix, DataSource dataSource) {
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations(properties.getProperty(prefix + ".migration.locations", "classpath:db/migration").split(","))
+                .baselineOnMigrate(properties.getProperty(prefix + ".migration.baseline-on-migrate", Boolean.class, true))
+                .baselineVersion(properties.getProperty(prefix + ".migration.baseline-version", "1"))
+                .load();
+        if (properties.getProperty(prefix + ".migration.enabled", Boolean.class, true)) flyway.migrate();
+        return flyway;
+    }
+}
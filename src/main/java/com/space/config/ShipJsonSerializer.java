@@ -0,0 +1,88 @@
+package com.space.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.space.model.Ship;
+import com.space.service.cache.ShipJsonCache;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a {@link Ship} field by field, producing the same JSON as the field-visibility mapper without its
+ * reflective property access. With a {@link ShipJsonCache} the encoded ship is written as raw bytes, which
+ * only a JSON text generator accepts; the binary formats use it without a cache.
+ */
+public class ShipJsonSerializer extends StdSerializer<Ship> {
+    private static final long serialVersionUID = 1L;
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString PLANET = new SerializedString("planet");
+    private static final SerializedString SHIP_TYPE = new SerializedString("shipType");
+    private static final SerializedString PROD_DATE = new SerializedString("prodDate");
+    private static final SerializedString IS_USED = new SerializedString("isUsed");
+    private static final SerializedString SPEED = new SerializedString("speed");
+    private static final SerializedString CREW_SIZE = new SerializedString("crewSize");
+    private static final SerializedString RATING = new SerializedString("rating");
+
+    private final JsonFactory factory = new JsonFactory();
+    private final ShipJsonCache cache;
+
+    public ShipJsonSerializer(ShipJsonCache cache) {
+        super(Ship.class);
+        this.cache = cache;
+    }
+
+    @Override
+    public void serialize(Ship ship, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        SerializableString json = cache == null ? null : cache.get(ship, this::encode);
+        if (json != null) generator.writeRawValue(json);
+        else write(ship, generator);
+    }
+
+    private String encode(Ship ship) {
+        StringWriter writer = new StringWriter(192);
+        try (JsonGenerator generator = factory.createGenerator(writer)) {
+            write(ship, generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    private static void write(Ship ship, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        if (ship.getId() == null) generator.writeNull();
+        else generator.writeNumber(ship.getId());
+        generator.writeFieldName(NAME);
+        generator.writeString(ship.getName());
+        generator.writeFieldName(PLANET);
+        generator.writeString(ship.getPlanet());
+        generator.writeFieldName(SHIP_TYPE);
+        if (ship.getShipType() == null) generator.writeNull();
+        else generator.writeString(ship.getShipType().name());
+        generator.writeFieldName(PROD_DATE);
+        if (ship.getProdDate() == null) generator.writeNull();
+        else generator.writeNumber(ship.getProdDate().getTime());
+        generator.writeFieldName(IS_USED);
+        if (ship.getUsed() == null) generator.writeNull();
+        else generator.writeBoolean(ship.getUsed());
+        generator.writeFieldName(SPEED);
+        if (ship.getSpeed() == null) generator.writeNull();
+        else generator.writeNumber(ship.getSpeed());
+        generator.writeFieldName(CREW_SIZE);
+        if (ship.getCrewSize() == null) generator.writeNull();
+        else generator.writeNumber(ship.getCrewSize());
+        generator.writeFieldName(RATING);
+        if (ship.getRating() == null) generator.writeNull();
+        else generator.writeNumber(ship.getRating());
+        generator.writeEndObject();
+    }
+}
@@ -2,26 +2,69 @@ package com.space.config;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.space.model.Ship;
+import com.space.service.cache.ShipJsonCache;
+import com.space.service.metrics.ShipMetrics;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 import org.springframework.web.servlet.view.JstlView;
 
+import javax.sql.DataSource;
 import java.util.List;
 
 @Configuration
 @EnableWebMvc
 @ComponentScan("com.space.controller")
 public class WebConfig implements WebMvcConfigurer {
+    private long readYourWritesWindow;
+    private long asyncTimeout;
+    private ShipJsonCache jsonCache;
+    private ShipMetrics metrics;
+    private DataSource dataSource;
 
+    @Value("${db.read-your-writes-ms:1000}")
+    public void setReadYourWritesWindow(long readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    @Autowired(required = false)
+    public void setJsonCache(ShipJsonCache jsonCache) {
+        this.jsonCache = jsonCache;
+    }
+
+    @Autowired(required = false)
+    public void setMetrics(ShipMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Autowired(required = false)
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Value("${ship.async.timeout-ms:30000}")
+    public void setAsyncTimeout(long asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+    }
 
     @Bean
     public ViewResolver internalResourceViewResolver() {
@@ -32,6 +75,16 @@ public class WebConfig implements WebMvcConfigurer {
         return bean;
     }
 
+    @Bean
+    public SmartInitializingSingleton completedFutureReturnValues(RequestMappingHandlerAdapter adapter) {
+        return () -> CompletedFutureReturnValueHandler.install(adapter);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeout);
+    }
+
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
         registry.addViewController("/").setViewName("index");
@@ -42,11 +95,41 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/resources/**").addResourceLocations("/resources/");
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (metrics != null && metrics.isEnabled()) {
+            registry.addInterceptor(new MetricsInterceptor(metrics))
+                    .addPathPatterns("/rest/**")
+                    .excludePathPatterns("/rest/metrics");
+        }
+        // Without replicas every read goes to the primary anyway, so there are no writers to remember.
+        if (dataSource instanceof ReadWriteDataSource && !((ReadWriteDataSource) dataSource).getReplicas().isEmpty()) {
+            registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesWindow)).addPathPatterns("/rest/**");
+        }
+    }
+
+    /**
+     * JSON stays the default; CBOR and Smile are chosen through {@code Accept} and {@code Content-Type}.
+     */
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        converter.getObjectMapper().setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
-        converter.getObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
-        converters.add(converter);
+        MappingJackson2HttpMessageConverter json = new MappingJackson2HttpMessageConverter();
+        configure(json.getObjectMapper(), jsonCache);
+        converters.add(json);
+
+        // The byte cache holds JSON text, so the binary formats encode every ship themselves.
+        MappingJackson2CborHttpMessageConverter cbor = new MappingJackson2CborHttpMessageConverter();
+        configure(cbor.getObjectMapper(), null);
+        converters.add(cbor);
+
+        MappingJackson2SmileHttpMessageConverter smile = new MappingJackson2SmileHttpMessageConverter();
+        configure(smile.getObjectMapper(), null);
+        converters.add(smile);
+    }
+
+    private static void configure(ObjectMapper mapper, ShipJsonCache jsonCache) {
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        mapper.registerModule(new SimpleModule().addSerializer(Ship.class, new ShipJsonSerializer(jsonCache)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.space.controller;
+
+import com.space.config.PoolMetrics;
+import com.space.service.cache.CacheStatistics;
+import com.space.service.cache.ShipEntityCache;
+import com.space.service.cache.ShipJsonCache;
+import com.space.service.cache.ShipQueryCache;
+import com.space.service.cache.ShipQueryCoalescer;
+import com.space.service.metrics.ShipMetrics;
+import com.space.service.metrics.ShipStatisticsFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exposes request, service, database, pool and cache metrics in the Prometheus text format.
+ */
+@RestController
+@RequestMapping(value = "/rest/metrics")
+public class MetricsController {
+    private ShipMetrics metrics;
+    private PoolMetrics poolMetrics;
+    private ShipRequestExecutor requestExecutor;
+    private ShipQueryCoalescer coalescer;
+    private ShipQueryCache queryCache;
+    private ShipEntityCache entityCache;
+    private ShipJsonCache jsonCache;
+
+    @Autowired
+    public void setMetrics(ShipMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Autowired(required = false)
+    public void setPoolMetrics(PoolMetrics poolMetrics) {
+        this.poolMetrics = poolMetrics;
+    }
+
+    @Autowired
+    public void setRequestExecutor(ShipRequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
+
+    @Autowired
+    public void setCoalescer(ShipQueryCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Autowired
+    public void setQueryCache(ShipQueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    @Autowired
+    public void setEntityCache(ShipEntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    @Autowired
+    public void setJsonCache(ShipJsonCache jsonCache) {
+        this.jsonCache = jsonCache;
+    }
+
+    @GetMapping
+    public void getMetrics(HttpServletResponse response) throws IOException {
+        MetricsWriter out = new MetricsWriter();
+        writeRequests(out);
+        writeDatabase(out);
+        writePools(out);
+        writeCaches(out);
+
+        response.setContentType(MetricsWriter.CONTENT_TYPE);
+        response.getWriter().write(out.toString());
+    }
+
+    private void writeRequests(MetricsWriter out) {
+        out.histograms("ship_http_request_duration_seconds", "Request latency by endpoint.",
+                "endpoint", metrics.getEndpoints());
+        out.counters("ship_http_errors_total", "Error responses by endpoint and status.",
+                "endpoint", "status", metrics.getEndpointErrors());
+        out.histograms("ship_service_call_duration_seconds", "Ship service call latency by method.",
+                "method", metrics.getServiceCalls());
+        out.counters("ship_service_failures_total", "Ship service calls that threw, by method and exception.",
+                "method", "exception", metrics.getServiceFailures());
+
+        out.gauge("ship_executor_queue_depth", "Calls waiting for a request thread.", requestExecutor.getQueueDepth());
+        out.gauge("ship_executor_active", "Request threads running a call.", requestExecutor.getActiveCount());
+        out.counter("ship_executor_completed_total", "Calls completed on request threads.",
+                requestExecutor.getCompletedCount());
+        out.counter("ship_executor_rejected_total", "Calls rejected with a full queue.",
+                requestExecutor.getRejectedCount());
+        out.counter("ship_executor_expired_total", "Calls skipped after their request timed out.",
+                requestExecutor.getExpiredCount());
+
+        out.counter("ship_coalescer_calls_total", "List, page and count queries.", coalescer.getCalls());
+        out.counter("ship_coalescer_shared_total", "Queries answered by another caller's query.",
+                coalescer.getShared());
+    }
+
+    private void writeDatabase(MetricsWriter out) {
+        Statistics statistics = metrics.getHibernateStatistics();
+        if (statistics == null) return;
+
+        out.counter("ship_db_queries_total", "Executed queries.", statistics.getQueryExecutionCount());
+        if (statistics instanceof ShipStatisticsFactory.QueryTotals) {
+            ShipStatisticsFactory.QueryTotals totals = (ShipStatisticsFactory.QueryTotals) statistics;
+            out.counter("ship_db_query_rows_total", "Rows returned by queries.", totals.getQueryRows());
+            out.counter("ship_db_query_duration_seconds_total", "Time spent executing queries.",
+                    totals.getQueryMillis() / 1000.0);
+        }
+        out.gauge("ship_db_query_duration_max_seconds", "Slowest query execution.",
+                statistics.getQueryExecutionMaxTime() / 1000.0);
+        out.counter("ship_db_statements_prepared_total", "Prepared JDBC statements.",
+                statistics.getPrepareStatementCount());
+        out.counter("ship_db_entity_loads_total", "Loaded entities.", statistics.getEntityLoadCount());
+        out.counter("ship_db_entity_inserts_total", "Inserted entities.", statistics.getEntityInsertCount());
+        out.counter("ship_db_entity_updates_total", "Updated entities.", statistics.getEntityUpdateCount());
+        out.counter("ship_db_entity_deletes_total", "Deleted entities.", statistics.getEntityDeleteCount());
+        out.counter("ship_db_transactions_total", "Finished transactions.", statistics.getTransactionCount());
+        out.counter("ship_db_optimistic_failures_total", "Optimistic lock failures.",
+                statistics.getOptimisticFailureCount());
+    }
+
+    private void writePools(MetricsWriter out) {
+        if (poolMetrics == null) return;
+        Map<String, PoolMetrics.Pool> pools = new TreeMap<>(poolMetrics.getPools());
+
+        out.header("ship_pool_connections", "Pool connections by state.", "gauge");
+        for (Map.Entry<String, PoolMetrics.Pool> entry : pools.entrySet()) {
+            String pool = MetricsWriter.label("pool", entry.getKey()) + ",";
+            out.sample("ship_pool_connections", pool + MetricsWriter.label("state", "active"), entry.getValue().getActive());
+            out.sample("ship_pool_connections", pool + MetricsWriter.label("state", "idle"), entry.getValue().getIdle());
+        }
+        out.header("ship_pool_pending_threads", "Threads waiting for a connection.", "gauge");
+        for (Map.Entry<String, PoolMetrics.Pool> entry : pools.entrySet()) {
+            out.sample("ship_pool_pending_threads", MetricsWriter.label("pool", entry.getKey()), entry.getValue().getPending());
+        }
+        out.header("ship_pool_timeouts_total", "Connection requests that timed out.", "counter");
+        for (Map.Entry<String, PoolMetrics.Pool> entry : pools.entrySet()) {
+            out.sample("ship_pool_timeouts_total", MetricsWriter.label("pool", entry.getKey()), entry.getValue().getTimeouts());
+        }
+        out.header("ship_pool_connection_wait_seconds", "Time waited for a connection.", "histogram");
+        for (Map.Entry<String, PoolMetrics.Pool> entry : pools.entrySet()) {
+            out.histogram("ship_pool_connection_wait_seconds", MetricsWriter.label("pool", entry.getKey()),
+                    entry.getValue().getWaitTimes());
+        }
+    }
+
+    private void writeCaches(MetricsWriter out) {
+        Map<String, CacheStatistics> caches = new TreeMap<>();
+        caches.put("entity", entityCache.getStatistics());
+        caches.put("json", jsonCache.getStatistics());
+        caches.put("query", queryCache.getStatistics());
+
+        out.header("ship_cache_hits_total", "Cache hits.", "counter");
+        caches.forEach((cache, statistics) ->
+                out.sample("ship_cache_hits_total", MetricsWriter.label("cache", cache), statistics.getHits()));
+        out.header("ship_cache_misses_total", "Cache misses.", "counter");
+        caches.forEach((cache, statistics) ->
+                out.sample("ship_cache_misses_total", MetricsWriter.label("cache", cache), statistics.getMisses()));
+        out.header("ship_cache_evictions_total", "Entries evicted for size or age.", "counter");
+        caches.forEach((cache, statistics) ->
+                out.sample("ship_cache_evictions_total", MetricsWriter.label("cache", cache), statistics.getEvictions()));
+        out.header("ship_cache_size", "Cached entries.", "gauge");
+        caches.forEach((cache, statistics) ->
+                out.sample("ship_cache_size", MetricsWriter.label("cache", cache), statistics.getSize()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.space.controller;
+
+import com.space.service.metrics.LatencyHistogram;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds the Prometheus text exposition format, one metric family at a time.
+ */
+class MetricsWriter {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String[] BOUNDS = bounds();
+
+    private final StringBuilder out = new StringBuilder(16 * 1024);
+
+    MetricsWriter counter(String name, String help, double value) {
+        return header(name, help, "counter").sample(name, "", value);
+    }
+
+    MetricsWriter gauge(String name, String help, double value) {
+        return header(name, help, "gauge").sample(name, "", value);
+    }
+
+    /**
+     * One counter family from counts by two labels, such as errors by endpoint and status.
+     */
+    MetricsWriter counters(String name, String help, String label, String subLabel,
+                           Map<String, ? extends Map<String, LongAdder>> counts) {
+        header(name, help, "counter");
+        for (Map.Entry<String, ? extends Map<String, LongAdder>> outer : new TreeMap<>(counts).entrySet()) {
+            for (Map.Entry<String, LongAdder> inner : new TreeMap<>(outer.getValue()).entrySet()) {
+                sample(name, label(label, outer.getKey()) + "," + label(subLabel, inner.getKey()),
+                        inner.getValue().sum());
+            }
+        }
+        return this;
+    }
+
+    MetricsWriter histograms(String name, String help, String label, Map<String, LatencyHistogram> histograms) {
+        header(name, help, "histogram");
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            histogram(name, label(label, entry.getKey()), entry.getValue());
+        }
+        return this;
+    }
+
+    MetricsWriter header(String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    MetricsWriter sample(String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ');
+        if (value == (long) value) out.append((long) value);
+        else out.append(value);
+        out.append('\n');
+        return this;
+    }
+
+    MetricsWriter histogram(String name, String labels, LatencyHistogram histogram) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long[] counts = histogram.getCumulativeCounts();
+        for (int i = 0; i < counts.length; i++) {
+            sample(name + "_bucket", prefix + label("le", i < BOUNDS.length ? BOUNDS[i] : "+Inf"), counts[i]);
+        }
+        sample(name + "_sum", labels, histogram.getSumNanos() / 1e9);
+        return sample(name + "_count", labels, counts[counts.length - 1]);
+    }
+
+    static String label(String name, String value) {
+        StringBuilder label = new StringBuilder(name.length() + value.length() + 3).append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') label.append('\\').append(c);
+            else if (c == '\n') label.append("\\n");
+            else label.append(c);
+        }
+        return label.append('"').toString();
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private static String[] bounds() {
+        long[] nanos = LatencyHistogram.getBoundsNanos();
+        String[] seconds = new String[nanos.length];
+        for (int i = 0; i < nanos.length; i++) {
+            seconds[i] = BigDecimal.valueOf(nanos[i], 9).stripTrailingZeros().toPlainString();
+        }
+        return seconds;
+    }
+}
@@ -0,0 +1,40 @@
+package com.space.controller;
+
+import com.space.model.RatingJobStatus;
+import com.space.service.ShipRatingJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/rest/ships/rating-job")
+public class RatingJobController {
+    private ShipRatingJob ratingJob;
+
+    @Autowired
+    public void setRatingJob(ShipRatingJob ratingJob) {
+        this.ratingJob = ratingJob;
+    }
+
+    @GetMapping
+    public ResponseEntity<RatingJobStatus> getStatus() {
+        return new ResponseEntity<>(ratingJob.getStatus(), HttpStatus.OK);
+    }
+
+    @PostMapping
+    public ResponseEntity<RatingJobStatus> start() {
+        RatingJobStatus status = ratingJob.start();
+        if (status == null) return new ResponseEntity<>(ratingJob.getStatus(), HttpStatus.CONFLICT);
+        return new ResponseEntity<>(status, HttpStatus.ACCEPTED);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<RatingJobStatus> stop() {
+        return new ResponseEntity<>(ratingJob.stop(), HttpStatus.OK);
+    }
+}
@@ -1,27 +1,59 @@
 package com.space.controller;
 
 import com.space.model.Ship;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipStats;
 import com.space.model.ShipType;
+import com.space.model.ShipsPage;
+import com.space.service.ShipDataVersion;
 import com.space.service.ShipService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping(value = "/rest")
 public class ShipController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String RETURN_REPRESENTATION = "return=representation";
+
     private ShipService shipService;
+    private ShipRequestExecutor requestExecutor;
+    private ShipDataVersion dataVersion;
+    private boolean etagEnabled;
 
     @Autowired
     public void setShipService(ShipService shipService) {
         this.shipService = shipService;
     }
 
+    @Autowired
+    public void setRequestExecutor(ShipRequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
+
+    @Autowired
+    public void setDataVersion(ShipDataVersion dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+
+    @Value("${ship.etag.enabled:false}")
+    public void setEtagEnabled(boolean etagEnabled) {
+        this.etagEnabled = etagEnabled;
+    }
+
     @GetMapping(value = "/ships")
-    public ResponseEntity<List<Ship>> getShipsList(
+    public CompletableFuture<ResponseEntity<List<Ship>>> getShipsList(
             @RequestParam(name = "name", required = false) String name,
             @RequestParam(name = "planet", required = false) String planet,
             @RequestParam(name = "shipType", required = false) ShipType shipType,
@@ -36,14 +68,40 @@ public class ShipController {
             @RequestParam(name = "maxRating", required = false) Double maxRating,
             @RequestParam(name = "order", required = false, defaultValue = "ID") ShipOrder order,
             @RequestParam(name = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
-            @RequestParam(name = "pageSize", required = false, defaultValue = "3") Integer pageSize) {
+            @RequestParam(name = "pageSize", required = false, defaultValue = "3") Integer pageSize,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestHeader(name = "If-None-Match", required = false) String ifNoneMatch) {
+
+        return conditional(ifNoneMatch, () -> findShips(name, planet, shipType, after, before, isUsed, minSpeed,
+                maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating, order, pageNumber, pageSize, cursor));
+    }
+
+    private ResponseEntity<List<Ship>> findShips(String name, String planet, ShipType shipType, Long after,
+                                                 Long before, Boolean isUsed, Double minSpeed, Double maxSpeed,
+                                                 Integer minCrewSize, Integer maxCrewSize, Double minRating,
+                                                 Double maxRating, ShipOrder order, Integer pageNumber,
+                                                 Integer pageSize, String cursor) {
+        if (cursor != null) {
+            ShipCursor position = cursor.isEmpty() ? null : ShipCursor.decode(cursor);
+            if (!cursor.isEmpty() && (position == null || position.getOrder() != order)) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+
+            List<Ship> ships = shipService.getShipsListAfter(name, planet, shipType, after, before, isUsed, minSpeed,
+                    maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating, order, position, pageSize);
+            HttpHeaders headers = new HttpHeaders();
+            if (!ships.isEmpty() && ships.size() == pageSize) {
+                headers.set(NEXT_CURSOR_HEADER, ShipCursor.after(order, ships.get(ships.size() - 1)).encode());
+            }
+            return new ResponseEntity<>(ships, headers, HttpStatus.OK);
+        }
 
         return new ResponseEntity<>(shipService.getShipsList(name, planet, shipType, after, before, isUsed, minSpeed,
                 maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating, order, pageNumber, pageSize), HttpStatus.OK);
     }
 
     @GetMapping(value = "/ships/count")
-    public ResponseEntity<Integer> getShipsCount(
+    public CompletableFuture<ResponseEntity<Integer>> getShipsCount(
             @RequestParam(name = "name", required = false) String name,
             @RequestParam(name = "planet", required = false) String planet,
             @RequestParam(name = "shipType", required = false) ShipType shipType,
@@ -55,29 +113,190 @@ public class ShipController {
             @RequestParam(name = "minCrewSize", required = false) Integer minCrewSize,
             @RequestParam(name = "maxCrewSize", required = false) Integer maxCrewSize,
             @RequestParam(name = "minRating", required = false) Double minRating,
-            @RequestParam(name = "maxRating", required = false) Double maxRating) {
+            @RequestParam(name = "maxRating", required = false) Double maxRating,
+            @RequestHeader(name = "If-None-Match", required = false) String ifNoneMatch) {
+
+        return conditional(ifNoneMatch, () -> new ResponseEntity<>(shipService.getShipsCount(name, planet, shipType,
+                after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating), HttpStatus.OK));
+    }
+
+    @GetMapping(value = "/ships/page")
+    public CompletableFuture<ResponseEntity<ShipsPage>> getShipsPage(
+            @RequestParam(name = "name", required = false) String name,
+            @RequestParam(name = "planet", required = false) String planet,
+            @RequestParam(name = "shipType", required = false) ShipType shipType,
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "before", required = false) Long before,
+            @RequestParam(name = "isUsed", required = false) Boolean isUsed,
+            @RequestParam(name = "minSpeed", required = false) Double minSpeed,
+            @RequestParam(name = "maxSpeed", required = false) Double maxSpeed,
+            @RequestParam(name = "minCrewSize", required = false) Integer minCrewSize,
+            @RequestParam(name = "maxCrewSize", required = false) Integer maxCrewSize,
+            @RequestParam(name = "minRating", required = false) Double minRating,
+            @RequestParam(name = "maxRating", required = false) Double maxRating,
+            @RequestParam(name = "order", required = false, defaultValue = "ID") ShipOrder order,
+            @RequestParam(name = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
+            @RequestParam(name = "pageSize", required = false, defaultValue = "3") Integer pageSize,
+            @RequestHeader(name = "If-None-Match", required = false) String ifNoneMatch) {
+
+        return conditional(ifNoneMatch, () -> new ResponseEntity<>(shipService.getShipsPage(name, planet, shipType,
+                after, before, isUsed, minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating, order,
+                pageNumber, pageSize), HttpStatus.OK));
+    }
+
+    @GetMapping(value = "/ships/stats")
+    public CompletableFuture<ResponseEntity<ShipStats>> getShipStats() {
+        return requestExecutor.submit(() -> new ResponseEntity<>(shipService.getShipStats(), HttpStatus.OK));
+    }
+
+    @GetMapping(value = "/ships/export")
+    public void exportShips(
+            @RequestParam(name = "name", required = false) String name,
+            @RequestParam(name = "planet", required = false) String planet,
+            @RequestParam(name = "shipType", required = false) ShipType shipType,
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "before", required = false) Long before,
+            @RequestParam(name = "isUsed", required = false) Boolean isUsed,
+            @RequestParam(name = "minSpeed", required = false) Double minSpeed,
+            @RequestParam(name = "maxSpeed", required = false) Double maxSpeed,
+            @RequestParam(name = "minCrewSize", required = false) Integer minCrewSize,
+            @RequestParam(name = "maxCrewSize", required = false) Integer maxCrewSize,
+            @RequestParam(name = "minRating", required = false) Double minRating,
+            @RequestParam(name = "maxRating", required = false) Double maxRating,
+            @RequestParam(name = "order", required = false, defaultValue = "ID") ShipOrder order,
+            @RequestParam(name = "format", required = false, defaultValue = "NDJSON") ShipExportFormat format,
+            HttpServletResponse response) throws IOException {
 
-        return new ResponseEntity<>(shipService.getShipsCount(name, planet, shipType, after, before, isUsed, minSpeed,
-                                            maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating), HttpStatus.OK);
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        shipService.exportShips(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                minCrewSize, maxCrewSize, minRating, maxRating, order, format, response.getOutputStream());
     }
 
     @PostMapping(value = "/ships")
-    public ResponseEntity<Ship> createShip(@RequestBody Ship ship) {
-        return shipService.createShip(ship);
+    public CompletableFuture<ResponseEntity<Ship>> createShip(@RequestBody Ship ship) {
+        return requestExecutor.submit(() -> shipService.createShip(ship));
+    }
+
+    @PostMapping(value = "/ships/batch")
+    public CompletableFuture<ResponseEntity<ShipBatchResult>> createShips(@RequestBody List<Ship> ships) {
+        return requestExecutor.submit(() -> shipService.createShips(ships));
     }
 
+    /**
+     * With {@code ship.etag.enabled}, answers a matching If-None-Match with 304 from the ship's version alone, so
+     * the row is not loaded. That version comes from the entity cache when it is enabled and from a query on the
+     * version column otherwise.
+     */
     @GetMapping(value = "ships/{id}")
-    public ResponseEntity<Ship> getShip(@PathVariable Long id) {
-        return shipService.getShip(id);
+    public CompletableFuture<ResponseEntity<Ship>> getShip(@PathVariable Long id,
+                                                           @RequestHeader(name = "If-None-Match", required = false)
+                                                                   String ifNoneMatch) {
+        if (!etagEnabled) return requestExecutor.submit(() -> shipService.getShip(id));
+
+        return requestExecutor.submit(() -> {
+            if (ifNoneMatch != null) {
+                Long version = shipService.getShipVersion(id);
+                if (version != null && matches(ifNoneMatch, dataVersion.shipEtag(version))) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .eTag(dataVersion.shipEtag(version)).varyBy(HttpHeaders.ACCEPT).build();
+                }
+            }
+            return tagged(shipService.getShip(id));
+        });
     }
 
     @PostMapping(value = "/ships/{id}")
-    public ResponseEntity<Ship> updateShip(@PathVariable Long id, @RequestBody Ship ship) {
-        return shipService.updateShip(id, ship);
+    public CompletableFuture<ResponseEntity<Ship>> updateShip(@PathVariable Long id, @RequestBody Ship ship,
+                                                              @RequestHeader(name = "If-Match", required = false)
+                                                                      String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return requestExecutor.submit(() -> tagged(shipService.updateShip(id, ship)));
+        }
+
+        Long expectedVersion = dataVersion.versionOf(ifMatch);
+        if (expectedVersion == null) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED));
+        }
+        return requestExecutor.submit(() -> tagged(shipService.updateShip(id, ship, expectedVersion)));
+    }
+
+    /**
+     * Adds the ship's entity tag to a successful single-ship response when {@code ship.etag.enabled} is set.
+     */
+    private ResponseEntity<Ship> tagged(ResponseEntity<Ship> response) {
+        Ship ship = response.getBody();
+        if (!etagEnabled || response.getStatusCode() != HttpStatus.OK || ship == null || ship.getVersion() == null) {
+            return response;
+        }
+        return ResponseEntity.ok().headers(response.getHeaders()).eTag(dataVersion.shipEtag(ship.getVersion())).body(ship);
+    }
+
+    @DeleteMapping(value = "/ships")
+    public CompletableFuture<ResponseEntity<Integer>> deleteShips(
+            @RequestParam(name = "name", required = false) String name,
+            @RequestParam(name = "planet", required = false) String planet,
+            @RequestParam(name = "shipType", required = false) ShipType shipType,
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "before", required = false) Long before,
+            @RequestParam(name = "isUsed", required = false) Boolean isUsed,
+            @RequestParam(name = "minSpeed", required = false) Double minSpeed,
+            @RequestParam(name = "maxSpeed", required = false) Double maxSpeed,
+            @RequestParam(name = "minCrewSize", required = false) Integer minCrewSize,
+            @RequestParam(name = "maxCrewSize", required = false) Integer maxCrewSize,
+            @RequestParam(name = "minRating", required = false) Double minRating,
+            @RequestParam(name = "maxRating", required = false) Double maxRating) {
+
+        return requestExecutor.submit(() -> shipService.deleteShips(name, planet, shipType, after, before, isUsed,
+                minSpeed, maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating));
     }
 
     @DeleteMapping(value = "/ships/{id}")
-    public ResponseEntity<Ship> deleteShip(@PathVariable Long id) {
-        return shipService.deleteShip(id);
+    public CompletableFuture<ResponseEntity<Ship>> deleteShip(@PathVariable Long id,
+                                                              @RequestHeader(name = "Prefer", required = false)
+                                                                      String prefer) {
+        boolean returnShip = prefer != null && prefer.contains(RETURN_REPRESENTATION);
+        return requestExecutor.submit(() -> {
+            ResponseEntity<Ship> response = shipService.deleteShip(id, returnShip);
+            if (!returnShip || response.getBody() == null) return response;
+            return ResponseEntity.ok().header("Preference-Applied", RETURN_REPRESENTATION).body(response.getBody());
+        });
+    }
+
+    /**
+     * Tags a collection response with the data version it was read at and answers 304 without running
+     * {@code call} when the client already has that version.
+     */
+    private <T> CompletableFuture<ResponseEntity<T>> conditional(String ifNoneMatch, Supplier<ResponseEntity<T>> call) {
+        String etag = etagEnabled ? dataVersion.etag() : null;
+        if (etag == null) return requestExecutor.submit(call);
+        if (matches(ifNoneMatch, etag)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag).varyBy(HttpHeaders.ACCEPT).build());
+        }
+
+        return requestExecutor.submit(() -> {
+            ResponseEntity<T> response = call.get();
+            if (response.getStatusCode() != HttpStatus.OK) return response;
+            return ResponseEntity.ok().headers(response.getHeaders())
+                    .eTag(etag).varyBy(HttpHeaders.ACCEPT).body(response.getBody());
+        });
+    }
+
+    /**
+     * Weak comparison, as If-None-Match requires.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || opaque(candidate).equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
     }
 }
@@ -0,0 +1,78 @@
+package com.space.controller;
+
+import com.space.model.Ship;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a {@link ShipOrder}-sorted listing: the sort key and id of the last ship returned.
+ * Ships are ordered by the key with nulls first, ties broken by id.
+ */
+public final class ShipCursor {
+    private static final String SEPARATOR = ":";
+    private static final String NULL_KEY = "null";
+
+    private final ShipOrder order;
+    private final Number key;
+    private final long id;
+
+    private ShipCursor(ShipOrder order, Number key, long id) {
+        this.order = order;
+        this.key = key;
+        this.id = id;
+    }
+
+    public static ShipCursor after(ShipOrder order, Ship ship) {
+        return new ShipCursor(order, keyOf(order, ship), ship.getId());
+    }
+
+    public static Number keyOf(ShipOrder order, Ship ship) {
+        switch (order) {
+            case SPEED:
+                return ship.getSpeed();
+            case DATE:
+                return ship.getProdDate() == null ? null : ship.getProdDate().getTime();
+            case RATING:
+                return ship.getRating();
+            default:
+                return ship.getId();
+        }
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} if the value was not produced by {@link #encode()}
+     */
+    public static ShipCursor decode(String value) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(SEPARATOR);
+            if (parts.length != 3) return null;
+
+            ShipOrder order = ShipOrder.valueOf(parts[0]);
+            long id = Long.parseLong(parts[2]);
+            if (NULL_KEY.equals(parts[1])) return new ShipCursor(order, null, id);
+            Number key = order == ShipOrder.SPEED || order == ShipOrder.RATING
+                    ? (Number) Double.valueOf(parts[1]) : (Number) Long.valueOf(parts[1]);
+            return new ShipCursor(order, key, id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String value = order.name() + SEPARATOR + (key == null ? NULL_KEY : key.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ShipOrder getOrder() {
+        return order;
+    }
+
+    public Number getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
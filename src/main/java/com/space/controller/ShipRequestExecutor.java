@@ -0,0 +1,123 @@
+package com.space.controller;
+
+import com.space.config.ReadRouting;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs controller calls on a bounded pool so that slow queries hold pool threads, not container threads.
+ * A full queue answers 503 at once, and a call still queued when its request times out is skipped.
+ * Disabled unless {@code ship.async.enabled=true}; calls then run on the calling thread.
+ */
+@Component
+public class ShipRequestExecutor implements InitializingBean, DisposableBean {
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    private boolean enabled;
+    private int threads;
+    private int queueCapacity;
+    private long timeoutMillis;
+    private ThreadPoolExecutor executor;
+
+    @Value("${ship.async.enabled:false}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Value("${ship.async.threads:32}")
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    @Value("${ship.async.queue-capacity:1000}")
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Value("${ship.async.timeout-ms:30000}")
+    public void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) return;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), task -> {
+            Thread thread = new Thread(task, "ship-request-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (executor == null) return;
+        executor.shutdown();
+        executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        if (!enabled) return CompletableFuture.completedFuture(call.get());
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        Supplier<T> routed = ReadRouting.propagate(call);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (System.currentTimeMillis() >= deadline) {
+                    expired.increment();
+                    throw new AsyncRequestTimeoutException();
+                }
+                return routed.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Request queue is full", e);
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor == null ? 0 : executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return executor == null ? 0 : executor.getCompletedTaskCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+}
@@ -0,0 +1,54 @@
+package com.space.model;
+
+public class RatingJobStatus {
+    private State state;
+    private int referenceYear;
+    private long lastId;
+    private long processed;
+    private long updated;
+    private String error;
+
+    public RatingJobStatus() {
+    }
+
+    public RatingJobStatus(State state, int referenceYear, long lastId, long processed, long updated, String error) {
+        this.state = state;
+        this.referenceYear = referenceYear;
+        this.lastId = lastId;
+        this.processed = processed;
+        this.updated = updated;
+        this.error = error;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getReferenceYear() {
+        return referenceYear;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public enum State {
+        IDLE,
+        RUNNING,
+        STOPPED,
+        FINISHED,
+        FAILED
+    }
+}
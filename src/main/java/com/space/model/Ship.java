@@ -1,5 +1,7 @@
 package com.space.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
 import java.util.Date;
 
@@ -37,6 +39,27 @@ public class Ship {
     @Column(name = "rating")
     private Double rating;
 
+    @Version
+    @Column(name = "version")
+    @JsonIgnore
+    private Long version;
+
+    public Ship() {
+    }
+
+    public Ship(Ship other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.planet = other.planet;
+        this.shipType = other.shipType;
+        this.prodDate = other.prodDate == null ? null : new Date(other.prodDate.getTime());
+        this.isUsed = other.isUsed;
+        this.speed = other.speed;
+        this.crewSize = other.crewSize;
+        this.rating = other.rating;
+        this.version = other.version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -108,4 +131,12 @@ public class Ship {
     public void setRating(Double rating) {
         this.rating = rating;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,68 @@
+package com.space.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShipBatchResult {
+    private int created;
+    private int failed;
+    private List<Item> items = new ArrayList<>();
+
+    public void add(Item item) {
+        items.add(item);
+        if (item.getStatus() == Status.CREATED) {
+            created++;
+        } else failed++;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+
+    public static class Item {
+        private int index;
+        private Long id;
+        private Status status;
+        private String message;
+
+        public Item() {
+        }
+
+        public Item(int index, Long id, Status status, String message) {
+            this.index = index;
+            this.id = id;
+            this.status = status;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.space.model;
+
+import java.util.Map;
+
+public class ShipStats {
+    private Group total;
+    private Map<ShipType, Group> byShipType;
+    private Map<String, Group> byPlanet;
+
+    public ShipStats() {
+    }
+
+    public ShipStats(Group total, Map<ShipType, Group> byShipType, Map<String, Group> byPlanet) {
+        this.total = total;
+        this.byShipType = byShipType;
+        this.byPlanet = byPlanet;
+    }
+
+    public Group getTotal() {
+        return total;
+    }
+
+    public Map<ShipType, Group> getByShipType() {
+        return byShipType;
+    }
+
+    public Map<String, Group> getByPlanet() {
+        return byPlanet;
+    }
+
+    public static class Group {
+        private long count;
+        private Metric speed;
+        private Metric rating;
+        private Metric crewSize;
+
+        public Group() {
+        }
+
+        public Group(long count, Metric speed, Metric rating, Metric crewSize) {
+            this.count = count;
+            this.speed = speed;
+            this.rating = rating;
+            this.crewSize = crewSize;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public Metric getSpeed() {
+            return speed;
+        }
+
+        public Metric getRating() {
+            return rating;
+        }
+
+        public Metric getCrewSize() {
+            return crewSize;
+        }
+    }
+
+    /**
+     * Summary of one field. Count, mean and standard deviation are exact; min, max and the percentiles come
+     * from a fixed histogram and are accurate to one bucket width.
+     */
+    public static class Metric {
+        private long count;
+        private Double min;
+        private Double max;
+        private Double mean;
+        private Double stdDev;
+        private Double p50;
+        private Double p90;
+        private Double p99;
+
+        public Metric() {
+        }
+
+        public Metric(long count, Double min, Double max, Double mean, Double stdDev,
+                      Double p50, Double p90, Double p99) {
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+            this.stdDev = stdDev;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public Double getMin() {
+            return min;
+        }
+
+        public Double getMax() {
+            return max;
+        }
+
+        public Double getMean() {
+            return mean;
+        }
+
+        public Double getStdDev() {
+            return stdDev;
+        }
+
+        public Double getP50() {
+            return p50;
+        }
+
+        public Double getP90() {
+            return p90;
+        }
+
+        public Double getP99() {
+            return p99;
+        }
+    }
+}
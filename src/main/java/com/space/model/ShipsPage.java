@@ -0,0 +1,32 @@
+package com.space.model;
+
+import java.util.List;
+
+public class ShipsPage {
+    private List<Ship> ships;
+    private Integer count;
+
+    public ShipsPage() {
+    }
+
+    public ShipsPage(List<Ship> ships, Integer count) {
+        this.ships = ships;
+        this.count = count;
+    }
+
+    public List<Ship> getShips() {
+        return ships;
+    }
+
+    public void setShips(List<Ship> ships) {
+        this.ships = ships;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+}
@@ -6,5 +6,5 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ShipRepository extends JpaSpecificationExecutor<Ship>, JpaRepository<Ship, Long> {
+public interface ShipRepository extends JpaSpecificationExecutor<Ship>, JpaRepository<Ship, Long>, ShipRepositoryCustom {
 }
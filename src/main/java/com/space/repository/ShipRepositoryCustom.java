@@ -0,0 +1,64 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ShipRepositoryCustom {
+
+    /**
+     * Same as {@code findAll(spec, pageable)} but without the COUNT query a {@code Page} requires.
+     */
+    Slice<Ship> findSlice(Specification<Ship> spec, Pageable pageable);
+
+    /**
+     * Same as {@code findAll(spec, pageable)}, but the total comes from the page itself when it is the last one;
+     * the COUNT query only runs when more rows follow or the page lies past the end.
+     */
+    Page<Ship> findPage(Specification<Ship> spec, Pageable pageable);
+
+    /**
+     * Returns the version of the ship without loading the row, or {@code null} if there is no such ship.
+     */
+    Long findVersion(Long id);
+
+    /**
+     * Inserts all ships with one JDBC batch and sets their generated ids and initial version.
+     */
+    void insertBatch(List<Ship> ships);
+
+    /**
+     * Writes the non-null fields of {@code changes} to the ship with one UPDATE, if its version is still
+     * {@code version}, and increments the version. Returns the number of updated rows.
+     */
+    int updateIfVersion(Long id, Long version, Ship changes);
+
+    /**
+     * Deletes the ship with one DELETE, without loading it first. A non-null {@code version} only deletes the
+     * ship while it is still at that version. Returns the number of deleted rows.
+     */
+    int deleteDirect(Long id, Long version);
+
+    /**
+     * Returns up to {@code limit} ids of matching ships greater than {@code afterId}, in ascending order.
+     */
+    List<Long> findIds(Specification<Ship> spec, Long afterId, int limit);
+
+    /**
+     * Deletes all ships with the given ids with one DELETE. Returns the number of deleted rows.
+     */
+    int deleteByIds(Collection<Long> ids);
+
+    /**
+     * Passes every matching ship to {@code action} from a forward-only cursor. Ships are read-only and
+     * detached right after {@code action} returns, so memory use does not grow with the result size.
+     */
+    void forEach(Specification<Ship> spec, Sort sort, int fetchSize, Consumer<Ship> action);
+}
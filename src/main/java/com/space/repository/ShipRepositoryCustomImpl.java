@@ -0,0 +1,216 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+@Transactional(readOnly = true)
+public class ShipRepositoryCustomImpl implements ShipRepositoryCustom {
+    private static final String INSERT_SQL = "INSERT INTO ship (name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private EntityManager entityManager;
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public Slice<Ship> findSlice(Specification<Ship> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> query = criteriaBuilder.createQuery(Ship.class);
+        Root<Ship> root = query.from(Ship.class);
+        query.select(root).where(spec.toPredicate(root, query, criteriaBuilder));
+        query.orderBy(toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        List<Ship> ships = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = ships.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? ships.subList(0, pageable.getPageSize()) : ships, pageable, hasNext);
+    }
+
+    @Override
+    public Page<Ship> findPage(Specification<Ship> spec, Pageable pageable) {
+        Slice<Ship> slice = findSlice(spec, pageable);
+        if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            return new PageImpl<>(slice.getContent(), pageable, pageable.getOffset() + slice.getNumberOfElements());
+        }
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Ship> root = query.from(Ship.class);
+        query.select(criteriaBuilder.count(root)).where(spec.toPredicate(root, query, criteriaBuilder));
+
+        return new PageImpl<>(slice.getContent(), pageable, entityManager.createQuery(query).getSingleResult());
+    }
+
+    @Override
+    public Long findVersion(Long id) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Ship> root = query.from(Ship.class);
+        query.select(root.get("version")).where(criteriaBuilder.equal(root.get("id"), id));
+
+        List<Long> versions = entityManager.createQuery(query).getResultList();
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    @Override
+    public void forEach(Specification<Ship> spec, Sort sort, int fetchSize, Consumer<Ship> action) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> query = criteriaBuilder.createQuery(Ship.class);
+        Root<Ship> root = query.from(Ship.class);
+        query.select(root).where(spec.toPredicate(root, query, criteriaBuilder));
+        query.orderBy(toOrders(sort, root, criteriaBuilder));
+
+        // unwrap only takes the raw class; the criteria query above selects Ship, so the rows are ships
+        @SuppressWarnings("unchecked")
+        Query<Ship> hibernateQuery = entityManager.createQuery(query).unwrap(Query.class);
+        hibernateQuery.setFetchSize(fetchSize);
+        hibernateQuery.setReadOnly(true);
+        hibernateQuery.setCacheMode(CacheMode.IGNORE);
+
+        try (ScrollableResults results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                Ship ship = (Ship) results.get(0);
+                action.accept(ship);
+                entityManager.detach(ship);
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public int updateIfVersion(Long id, Long version, Ship changes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ship> update = criteriaBuilder.createCriteriaUpdate(Ship.class);
+        Root<Ship> root = update.from(Ship.class);
+
+        if (changes.getName() != null) update.set(root.<String>get("name"), changes.getName());
+        if (changes.getPlanet() != null) update.set(root.<String>get("planet"), changes.getPlanet());
+        if (changes.getShipType() != null) update.set(root.<ShipType>get("shipType"), changes.getShipType());
+        if (changes.getProdDate() != null) update.set(root.<Date>get("prodDate"), changes.getProdDate());
+        if (changes.getUsed() != null) update.set(root.<Boolean>get("isUsed"), changes.getUsed());
+        if (changes.getSpeed() != null) update.set(root.<Double>get("speed"), changes.getSpeed());
+        if (changes.getCrewSize() != null) update.set(root.<Integer>get("crewSize"), changes.getCrewSize());
+        if (changes.getRating() != null) update.set(root.<Double>get("rating"), changes.getRating());
+        Path<Long> versionPath = root.get("version");
+        update.set(versionPath, criteriaBuilder.sum(versionPath, 1L));
+        update.where(criteriaBuilder.equal(root.get("id"), id), criteriaBuilder.equal(versionPath, version));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int deleteDirect(Long id, Long version) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<Ship> delete = criteriaBuilder.createCriteriaDelete(Ship.class);
+        Root<Ship> root = delete.from(Ship.class);
+        Predicate byId = criteriaBuilder.equal(root.get("id"), id);
+        delete.where(version == null ? byId : criteriaBuilder.and(byId, criteriaBuilder.equal(root.get("version"), version)));
+
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Ship> spec, Long afterId, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Ship> root = query.from(Ship.class);
+        Path<Long> id = root.get("id");
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (afterId != null) predicate = criteriaBuilder.and(predicate, criteriaBuilder.greaterThan(id, afterId));
+        query.select(id).where(predicate).orderBy(criteriaBuilder.asc(id));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<Ship> delete = criteriaBuilder.createCriteriaDelete(Ship.class);
+        Root<Ship> root = delete.from(Ship.class);
+        delete.where(root.get("id").in(ids));
+
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void insertBatch(List<Ship> ships) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Ship ship : ships) {
+                    statement.setString(1, ship.getName());
+                    statement.setString(2, ship.getPlanet());
+                    statement.setString(3, ship.getShipType().name());
+                    statement.setTimestamp(4, new Timestamp(ship.getProdDate().getTime()));
+                    statement.setBoolean(5, ship.getUsed());
+                    statement.setDouble(6, ship.getSpeed());
+                    statement.setInt(7, ship.getCrewSize());
+                    statement.setDouble(8, ship.getRating());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Ship ship : ships) {
+                        if (!keys.next()) throw new SQLException("Missing generated id for ship " + ship.getName());
+                        ship.setId(keys.getLong(1));
+                        ship.setVersion(0L);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
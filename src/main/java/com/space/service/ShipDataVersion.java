@@ -0,0 +1,77 @@
+package com.space.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generation counter of the ship table. Every write through the service is bracketed by
+ * {@link #beginWrite()} and {@link #endWrite()}; the generation moves on when the write has finished.
+ */
+@Component
+public class ShipDataVersion {
+    public static final long WRITE_IN_PROGRESS = -1;
+
+    private final AtomicInteger activeWrites = new AtomicInteger();
+    private final AtomicLong generation = new AtomicLong();
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    public void beginWrite() {
+        activeWrites.incrementAndGet();
+    }
+
+    public void endWrite() {
+        generation.incrementAndGet();
+        activeWrites.decrementAndGet();
+    }
+
+    /**
+     * Reads the generation a result may be tagged with. While a write is running its outcome is unknown,
+     * so {@link #WRITE_IN_PROGRESS} is returned instead and the result must not be shared.
+     * <p>
+     * Active writes are read first: a write that has already finished is then guaranteed to be counted.
+     */
+    public long stamp() {
+        if (activeWrites.get() > 0) return WRITE_IN_PROGRESS;
+        return generation.get();
+    }
+
+    /**
+     * Entity tag for collection responses computed from now on, or {@code null} while a write is running.
+     * The start time is part of the tag, so tags handed out before a restart never match. The tag is weak
+     * because the JSON, CBOR and Smile bodies of one result share it.
+     */
+    public String etag() {
+        long stamp = stamp();
+        return stamp == WRITE_IN_PROGRESS ? null : "W/\"" + epoch + "-" + stamp + "\"";
+    }
+
+    /**
+     * Entity tag of one ship at {@code version}. Weak for the same reason as {@link #etag()}, and carrying the
+     * start time so that a row re-created after a restart with the same id and version does not match.
+     */
+    public String shipEtag(long version) {
+        return "W/\"" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * The ship version in a tag from {@link #shipEtag(long)}, or {@code null} if the tag is malformed or was
+     * handed out before a restart.
+     */
+    public Long versionOf(String etag) {
+        String tag = etag.trim();
+        if (tag.startsWith("W/")) tag = tag.substring(2);
+        tag = tag.replace("\"", "");
+        if (!tag.startsWith(epoch + "-")) return null;
+        try {
+            return Long.valueOf(tag.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+}
@@ -0,0 +1,107 @@
+package com.space.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.space.config.ShipJsonSerializer;
+import com.space.controller.ShipExportFormat;
+import com.space.model.Ship;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes ships one at a time in an export format. Nothing is kept between rows, only the output buffer.
+ */
+abstract class ShipExportWriter implements Closeable {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(new ShipJsonSerializer(null)))
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    static ShipExportWriter create(ShipExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return format == ShipExportFormat.CSV ? new Csv(writer) : new NdJson(writer);
+    }
+
+    abstract void write(Ship ship) throws IOException;
+
+    private static final class NdJson extends ShipExportWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdJson(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = MAPPER.getFactory().createGenerator(writer);
+        }
+
+        @Override
+        void write(Ship ship) throws IOException {
+            MAPPER.writeValue(generator, ship);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+    }
+
+    private static final class Csv extends ShipExportWriter {
+        private final Writer writer;
+
+        Csv(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write("id,name,planet,shipType,prodDate,isUsed,speed,crewSize,rating\n");
+        }
+
+        @Override
+        void write(Ship ship) throws IOException {
+            writer.write(String.valueOf(ship.getId()));
+            writer.write(',');
+            writeText(ship.getName());
+            writer.write(',');
+            writeText(ship.getPlanet());
+            writer.write(',');
+            writeValue(ship.getShipType());
+            writer.write(',');
+            writeValue(ship.getProdDate() == null ? null : ship.getProdDate().getTime());
+            writer.write(',');
+            writeValue(ship.getUsed());
+            writer.write(',');
+            writeValue(ship.getSpeed());
+            writer.write(',');
+            writeValue(ship.getCrewSize());
+            writer.write(',');
+            writeValue(ship.getRating());
+            writer.write('\n');
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value != null) writer.write(value.toString());
+        }
+
+        private void writeText(String value) throws IOException {
+            if (value == null) return;
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.space.service;
+
+import com.space.model.RatingJobStatus;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recomputes the stored rating of every ship for {@code ship.rating.current-year}.
+ * <p>
+ * Ships are read in id order in chunks of {@code ship.rating.job.chunk-size} and re-rated by
+ * {@code ship.rating.job.threads} workers. Each chunk is written with one batched UPDATE in its own transaction.
+ * A worker pauses {@code ship.rating.job.pause-ms} after every chunk so online requests keep their share of
+ * the database.
+ * <p>
+ * The highest id below which every chunk is done is checkpointed in {@code ship_rating_job}, which the V4
+ * migration creates. A stopped or crashed run continues from there, and on startup as well if
+ * {@code ship.rating.job.resume-on-startup} is set. An UPDATE only applies while speed, isUsed and prodDate still
+ * hold the values the rating was computed from. A ship changed through the API in the meantime has already been
+ * rated by the service with the same reference year.
+ */
+@Component
+public class ShipRatingJob implements InitializingBean, DisposableBean {
+    private static final String JOB_NAME = "rerate";
+    private static final String SELECT_CHECKPOINT = "SELECT reference_year, last_id, updated, finished " +
+            "FROM ship_rating_job WHERE name = ?";
+    private static final String SELECT_CHUNK = "SELECT id, name, planet, shipType, prodDate, isUsed, speed, " +
+            "crewSize, rating FROM ship WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_BY_IDS = "SELECT id, name, planet, shipType, prodDate, isUsed, speed, " +
+            "crewSize, rating FROM ship WHERE id IN (";
+    private static final String UPDATE_RATING = "UPDATE ship SET rating = ?, version = version + 1 " +
+            "WHERE id = ? AND speed = ? AND isUsed = ? AND prodDate = ?";
+
+    private static final RowMapper<Ship> SHIP_MAPPER = (rs, rowNum) -> {
+        Ship ship = new Ship();
+        ship.setId(rs.getLong("id"));
+        ship.setName(rs.getString("name"));
+        ship.setPlanet(rs.getString("planet"));
+        String shipType = rs.getString("shipType");
+        ship.setShipType(shipType == null ? null : ShipType.valueOf(shipType));
+        Timestamp prodDate = rs.getTimestamp("prodDate");
+        ship.setProdDate(prodDate == null ? null : new Date(prodDate.getTime()));
+        ship.setUsed(rs.getObject("isUsed", Boolean.class));
+        ship.setSpeed(rs.getObject("speed", Double.class));
+        ship.setCrewSize(rs.getObject("crewSize", Integer.class));
+        ship.setRating(rs.getObject("rating", Double.class));
+        return ship;
+    };
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ShipDataVersion dataVersion;
+    private List<ShipWriteListener> writeListeners = Collections.emptyList();
+    private int currentYear;
+    private int chunkSize;
+    private int threads;
+    private long pauseMillis;
+    private boolean resumeOnStartup;
+
+    private volatile Run run;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Autowired
+    public void setDataVersion(ShipDataVersion dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+
+    @Autowired(required = false)
+    public void setWriteListeners(List<ShipWriteListener> writeListeners) {
+        this.writeListeners = writeListeners;
+    }
+
+    @Value("${ship.rating.current-year:3019}")
+    public void setCurrentYear(int currentYear) {
+        this.currentYear = currentYear;
+    }
+
+    @Value("${ship.rating.job.chunk-size:1000}")
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    @Value("${ship.rating.job.threads:2}")
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    @Value("${ship.rating.job.pause-ms:50}")
+    public void setPauseMillis(long pauseMillis) {
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Value("${ship.rating.job.resume-on-startup:true}")
+    public void setResumeOnStartup(boolean resumeOnStartup) {
+        this.resumeOnStartup = resumeOnStartup;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Checkpoint checkpoint = loadCheckpoint();
+        if (resumeOnStartup && checkpoint != null && !checkpoint.finished && checkpoint.referenceYear == currentYear) {
+            start();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        Run current = run;
+        if (current != null && current.state == RatingJobStatus.State.RUNNING) {
+            current.stopRequested = true;
+            current.thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * Starts a run, resuming from the checkpoint when it was left unfinished for the same reference year.
+     * Returns {@code null} if a run is already in progress.
+     */
+    public synchronized RatingJobStatus start() {
+        if (run != null && run.state == RatingJobStatus.State.RUNNING) return null;
+
+        Checkpoint checkpoint = loadCheckpoint();
+        Run next;
+        if (checkpoint != null && !checkpoint.finished && checkpoint.referenceYear == currentYear) {
+            next = new Run(currentYear, checkpoint.lastId, checkpoint.updated);
+        } else {
+            next = new Run(currentYear, 0, 0);
+            jdbcTemplate.update("DELETE FROM ship_rating_job WHERE name = ?", JOB_NAME);
+            jdbcTemplate.update("INSERT INTO ship_rating_job (name, reference_year, last_id, updated, finished) " +
+                    "VALUES (?, ?, 0, 0, FALSE)", JOB_NAME, currentYear);
+        }
+
+        next.thread = new Thread(() -> execute(next), "ship-rating-job");
+        next.thread.setDaemon(true);
+        run = next;
+        next.thread.start();
+        return next.toStatus();
+    }
+
+    /**
+     * Asks the current run to stop after the chunks in flight; it can be resumed with {@link #start()}.
+     */
+    public RatingJobStatus stop() {
+        Run current = run;
+        if (current != null) current.stopRequested = true;
+        return getStatus();
+    }
+
+    public RatingJobStatus getStatus() {
+        Run current = run;
+        if (current != null) return current.toStatus();
+
+        Checkpoint checkpoint = loadCheckpoint();
+        if (checkpoint == null) return new RatingJobStatus(RatingJobStatus.State.IDLE, currentYear, 0, 0, 0, null);
+        return new RatingJobStatus(checkpoint.finished ? RatingJobStatus.State.FINISHED : RatingJobStatus.State.STOPPED,
+                checkpoint.referenceYear, checkpoint.lastId, 0, checkpoint.updated, null);
+    }
+
+    private void execute(Run run) {
+        AtomicInteger workerNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "ship-rating-worker-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(threads * 2);
+        TreeMap<Long, Boolean> pending = new TreeMap<>();
+        ShipRules rules = new ShipRules(run.referenceYear);
+
+        try {
+            long cursor = run.lastId;
+            while (!run.stopRequested && run.error == null) {
+                List<Ship> chunk = jdbcTemplate.query(SELECT_CHUNK, SHIP_MAPPER, cursor, chunkSize);
+                if (chunk.isEmpty()) break;
+                long chunkEnd = chunk.get(chunk.size() - 1).getId();
+                cursor = chunkEnd;
+
+                inFlight.acquire();
+                synchronized (pending) {
+                    pending.put(chunkEnd, false);
+                }
+                workers.execute(() -> {
+                    try {
+                        rerate(run, rules, chunk);
+                        complete(run, pending, chunkEnd);
+                        if (pauseMillis > 0) Thread.sleep(pauseMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        run.error = e.getMessage() == null ? e.toString() : e.getMessage();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.stopRequested = true;
+        } catch (RuntimeException e) {
+            run.error = e.getMessage() == null ? e.toString() : e.getMessage();
+        } finally {
+            workers.shutdownNow();
+        }
+
+        if (run.error != null) {
+            run.state = RatingJobStatus.State.FAILED;
+        } else if (run.stopRequested) {
+            run.state = RatingJobStatus.State.STOPPED;
+        } else {
+            saveCheckpoint(run, true);
+            run.state = RatingJobStatus.State.FINISHED;
+        }
+    }
+
+    private void rerate(Run run, ShipRules rules, List<Ship> chunk) {
+        List<Ship> changed = new ArrayList<>(chunk.size());
+        List<Object[]> arguments = new ArrayList<>(chunk.size());
+        for (Ship ship : chunk) {
+            if (ship.getSpeed() == null || ship.getProdDate() == null || ship.getUsed() == null) continue;
+            // Built after the reference year: the formula's denominator would be zero or negative.
+            if (!rules.canRate(ship.getProdDate().getTime())) continue;
+            double coefficient = ship.getUsed() ? 0.5D : 1;
+            double rating = rules.rating(ship.getSpeed(), coefficient, ship.getProdDate().getTime());
+            if (ship.getRating() != null && Double.compare(ship.getRating(), rating) == 0) continue;
+
+            ship.setRating(rating);
+            changed.add(ship);
+            arguments.add(new Object[]{rating, ship.getId(), ship.getSpeed(), ship.getUsed(),
+                    new Timestamp(ship.getProdDate().getTime())});
+        }
+        run.processed.addAndGet(chunk.size());
+        if (changed.isEmpty()) return;
+
+        dataVersion.beginWrite();
+        try {
+            List<Ship> saved = transactionTemplate.execute(status -> {
+                int[] counts = jdbcTemplate.batchUpdate(UPDATE_RATING, arguments);
+                List<Long> ids = new ArrayList<>(changed.size());
+                for (int i = 0; i < changed.size(); i++) {
+                    if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) ids.add(changed.get(i).getId());
+                }
+                // The UPDATE only guards the rating inputs, so other columns may have changed since the chunk
+                // was read; the listeners get the rows as they are now, read under the UPDATE's row locks.
+                return ids.isEmpty() ? Collections.<Ship>emptyList() : jdbcTemplate.query(
+                        SELECT_BY_IDS + String.join(",", Collections.nCopies(ids.size(), "?")) + ")",
+                        SHIP_MAPPER, ids.toArray());
+            });
+            run.updated.addAndGet(saved.size());
+            for (Ship ship : saved) writeListeners.forEach(listener -> listener.shipSaved(ship));
+        } finally {
+            dataVersion.endWrite();
+        }
+    }
+
+    private void complete(Run run, TreeMap<Long, Boolean> pending, long chunkEnd) {
+        synchronized (pending) {
+            pending.put(chunkEnd, true);
+            long watermark = -1;
+            while (!pending.isEmpty() && pending.firstEntry().getValue()) {
+                watermark = pending.pollFirstEntry().getKey();
+            }
+            if (watermark >= 0) {
+                run.lastId = watermark;
+                saveCheckpoint(run, false);
+            }
+        }
+    }
+
+    private void saveCheckpoint(Run run, boolean finished) {
+        jdbcTemplate.update("UPDATE ship_rating_job SET last_id = ?, updated = ?, finished = ? WHERE name = ?",
+                run.lastId, run.updated.get(), finished, JOB_NAME);
+    }
+
+    private Checkpoint loadCheckpoint() {
+        List<Checkpoint> checkpoints = jdbcTemplate.query(SELECT_CHECKPOINT, (rs, rowNum) ->
+                new Checkpoint(rs.getInt("reference_year"), rs.getLong("last_id"), rs.getLong("updated"),
+                        rs.getBoolean("finished")), JOB_NAME);
+        return checkpoints.isEmpty() ? null : checkpoints.get(0);
+    }
+
+    private static final class Checkpoint {
+        private final int referenceYear;
+        private final long lastId;
+        private final long updated;
+        private final boolean finished;
+
+        Checkpoint(int referenceYear, long lastId, long updated, boolean finished) {
+            this.referenceYear = referenceYear;
+            this.lastId = lastId;
+            this.updated = updated;
+            this.finished = finished;
+        }
+    }
+
+    private static final class Run {
+        private final int referenceYear;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong updated;
+        private volatile long lastId;
+        private volatile RatingJobStatus.State state = RatingJobStatus.State.RUNNING;
+        private volatile boolean stopRequested;
+        private volatile String error;
+        private Thread thread;
+
+        Run(int referenceYear, long lastId, long updated) {
+            this.referenceYear = referenceYear;
+            this.lastId = lastId;
+            this.updated = new AtomicLong(updated);
+        }
+
+        RatingJobStatus toStatus() {
+            return new RatingJobStatus(state, referenceYear, lastId, processed.get(), updated.get(), error);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.space.service;
+
+import com.space.model.ShipType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Validation bounds and the rating formula, precomputed in epoch millis so the checks on create and update
+ * neither touch {@link Calendar} nor allocate. The stored production date is derived from the same year table
+ * when the default time zone has no daylight saving time; only other zones and dates outside the table fall back
+ * to {@link Calendar}.
+ * <p>
+ * Years are resolved in the default time zone, like {@code Calendar.getInstance()} does. The upper production
+ * date bound keeps the original "5th of the current month in the current year" cut-off and is recomputed when
+ * the calendar month changes.
+ */
+final class ShipRules {
+    static final int DEFAULT_CURRENT_YEAR = 3019;
+    private static final int MIN_YEAR = 2800;
+    private static final double TIE_TOLERANCE = 1e-7;
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private final int currentYear;
+    private final long minProdDate;
+    private final int firstTableYear;
+    private final long[] yearStarts;
+    private final boolean uniformDays;
+    private volatile UpperBound upperBound;
+
+    ShipRules(int currentYear) {
+        this.currentYear = currentYear;
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(MIN_YEAR, Calendar.JANUARY, 1, 0, 0, 0);
+        this.minProdDate = calendar.getTimeInMillis();
+
+        this.firstTableYear = MIN_YEAR - 1;
+        this.yearStarts = new long[currentYear - firstTableYear + 3];
+        for (int i = 0; i < yearStarts.length; i++) {
+            calendar.clear();
+            calendar.set(firstTableYear + i, Calendar.JANUARY, 1, 0, 0, 0);
+            yearStarts[i] = calendar.getTimeInMillis();
+        }
+        this.uniformDays = !TimeZone.getDefault().useDaylightTime() && everyYearInWholeDays(yearStarts);
+        this.upperBound = new UpperBound(currentYear, System.currentTimeMillis());
+    }
+
+    int getCurrentYear() {
+        return currentYear;
+    }
+
+    boolean isValidText(String value) {
+        return value != null && !value.isEmpty() && value.length() <= 50;
+    }
+
+    boolean isValidShipType(ShipType shipType) {
+        return shipType != null;
+    }
+
+    boolean isValidUsed(Boolean isUsed) {
+        return isUsed != null;
+    }
+
+    boolean isValidProdDate(Date prodDate) {
+        if (prodDate == null) return false;
+        long millis = prodDate.getTime();
+        return millis > 0 && millis > minProdDate && millis < upperBound().millis;
+    }
+
+    boolean isValidSpeed(Double speed) {
+        return speed != null && speed >= 0.01D && speed <= 0.99D;
+    }
+
+    boolean isValidCrewSize(Integer crewSize) {
+        return crewSize != null && crewSize >= 1 && crewSize <= 9999;
+    }
+
+    /**
+     * The value the DATE column {@code prodDate} keeps: the start of the day in the default time zone. Ships are
+     * handed to the write listeners with it, so the in-memory engines see the row a reload would read back.
+     */
+    Date storedDate(Date prodDate) {
+        long millis = prodDate.getTime();
+        int index = Arrays.binarySearch(yearStarts, millis);
+        if (index >= 0) return prodDate;
+        index = -index - 2;
+        if (uniformDays && index >= 0 && index < yearStarts.length - 1) {
+            long offset = Math.floorMod(millis - yearStarts[index], DAY);
+            return offset == 0 ? prodDate : new Date(millis - offset);
+        }
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(millis);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTime();
+    }
+
+    /**
+     * Whether {@link #rating} is defined for {@code prodDate}: ships built after the current year have no rating.
+     */
+    boolean canRate(long prodDate) {
+        return yearOf(prodDate) <= currentYear;
+    }
+
+    double rating(double speed, double coefficient, long prodDate) {
+        double rating = (80 * speed * coefficient) / (currentYear - yearOf(prodDate) + 1);
+        return roundHalfDown(rating);
+    }
+
+    int yearOf(long millis) {
+        int index = Arrays.binarySearch(yearStarts, millis);
+        if (index < 0) index = -index - 2;
+        if (index < 0 || index >= yearStarts.length - 1) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(millis);
+            return calendar.get(Calendar.YEAR);
+        }
+        return firstTableYear + index;
+    }
+
+    /**
+     * Same result as {@code new BigDecimal(value).setScale(2, RoundingMode.HALF_DOWN).doubleValue()}; only values
+     * that are within rounding error of a tie take the exact {@link BigDecimal} path.
+     */
+    static double roundHalfDown(double value) {
+        if (!(value >= 0) || value >= 1e13) {
+            return new BigDecimal(value).setScale(2, RoundingMode.HALF_DOWN).doubleValue();
+        }
+        double scaled = value * 100;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) < TIE_TOLERANCE) {
+            return new BigDecimal(value).setScale(2, RoundingMode.HALF_DOWN).doubleValue();
+        }
+        return (fraction < 0.5 ? floor : floor + 1) / 100;
+    }
+
+    private static boolean everyYearInWholeDays(long[] yearStarts) {
+        for (int i = 1; i < yearStarts.length; i++) {
+            if ((yearStarts[i] - yearStarts[i - 1]) % DAY != 0) return false;
+        }
+        return true;
+    }
+
+    private UpperBound upperBound() {
+        UpperBound bound = upperBound;
+        long now = System.currentTimeMillis();
+        if (now >= bound.validUntil || now < bound.validFrom) {
+            bound = new UpperBound(currentYear, now);
+            upperBound = bound;
+        }
+        return bound;
+    }
+
+    private static final class UpperBound {
+        private final long millis;
+        private final long validFrom;
+        private final long validUntil;
+
+        UpperBound(int currentYear, long now) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(now);
+            int month = calendar.get(Calendar.MONTH);
+            int year = calendar.get(Calendar.YEAR);
+
+            calendar.clear();
+            calendar.set(year, month, 1, 0, 0, 0);
+            this.validFrom = calendar.getTimeInMillis();
+            calendar.add(Calendar.MONTH, 1);
+            this.validUntil = calendar.getTimeInMillis();
+
+            calendar.clear();
+            calendar.set(currentYear, month, 5, 0, 0, 0);
+            this.millis = calendar.getTimeInMillis();
+        }
+    }
+}
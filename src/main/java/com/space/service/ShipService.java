@@ -1,10 +1,17 @@
 package com.space.service;
 
+import com.space.controller.ShipCursor;
+import com.space.controller.ShipExportFormat;
 import com.space.controller.ShipOrder;
 import com.space.model.Ship;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipStats;
 import com.space.model.ShipType;
+import com.space.model.ShipsPage;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ShipService {
@@ -14,15 +21,64 @@ public interface ShipService {
                             Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order,
                             Integer pageNumber, Integer pageSize);
 
+    List<Ship> getShipsListAfter(String name, String planet, ShipType shipType, Long after, Long before,
+                                 Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize,
+                                 Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order,
+                                 ShipCursor cursor, Integer pageSize);
+
     Integer getShipsCount(String name, String planet, ShipType shipType, Long after, Long before, Boolean isUsed,
                           Double minSpeed, Double maxSpeed, Integer minCrewSize, Integer maxCrewSize,
                           Double minRating, Double maxRating);
 
+    ShipsPage getShipsPage(String name, String planet, ShipType shipType, Long after, Long before,
+                           Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize,
+                           Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order,
+                           Integer pageNumber, Integer pageSize);
+
+    /**
+     * Count, min, max, mean, standard deviation and percentiles of speed, rating and crew size,
+     * for the whole fleet, per ship type and per planet.
+     */
+    ShipStats getShipStats();
+
+    void exportShips(String name, String planet, ShipType shipType, Long after, Long before,
+                     Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize,
+                     Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order,
+                     ShipExportFormat format, OutputStream out) throws IOException;
+
     ResponseEntity<Ship> createShip(Ship ship);
 
+    ResponseEntity<ShipBatchResult> createShips(List<Ship> ships);
+
     ResponseEntity<Ship> getShip(Long id);
 
+    /**
+     * Current version of the ship, or {@code null} for an invalid or unknown id. Served by the entity cache when
+     * it is enabled, otherwise by a query that reads only the version column.
+     */
+    Long getShipVersion(Long id);
+
     ResponseEntity<Ship> updateShip(Long id, Ship ship);
 
+    /**
+     * Same as {@link #updateShip(Long, Ship)}, but only applies while the ship is still at {@code expectedVersion}
+     * (412 otherwise). A {@code null} version retries concurrent modifications instead.
+     */
+    ResponseEntity<Ship> updateShip(Long id, Ship ship, Long expectedVersion);
+
     ResponseEntity<Ship> deleteShip(Long id);
+
+    /**
+     * Deletes the ship with a single DELETE. The deleted ship is only read and returned when {@code returnShip}
+     * is set, otherwise the response has no body.
+     */
+    ResponseEntity<Ship> deleteShip(Long id, boolean returnShip);
+
+    /**
+     * Deletes all ships matching the filters in chunks of ids and returns the number of deleted ships.
+     * At least one filter is required.
+     */
+    ResponseEntity<Integer> deleteShips(String name, String planet, ShipType shipType, Long after, Long before,
+                                        Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize,
+                                        Integer maxCrewSize, Double minRating, Double maxRating);
 }
@@ -1,125 +1,212 @@
 package com.space.service;
 
+import com.space.config.ReadRouting;
+import com.space.controller.ShipCursor;
+import com.space.controller.ShipExportFormat;
 import com.space.controller.ShipOrder;
 import com.space.model.Ship;
+import com.space.model.ShipStats;
 import com.space.model.ShipType;
+import com.space.model.ShipsPage;
 import com.space.repository.ShipRepository;
+import com.space.service.cache.ShipEntityCache;
+import com.space.service.cache.ShipQueryCache;
+import com.space.service.cache.ShipQueryCoalescer;
+import com.space.service.memory.ShipColumnStore;
+import com.space.service.memory.ShipCountCube;
+import com.space.service.memory.ShipFleetStats;
+import com.space.service.memory.ShipTrigramIndex;
+import com.space.model.ShipBatchResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 @Service
 public class ShipServiceImpl implements ShipService {
     private ShipRepository shipRepository;
-    private static final int CURRENT_YEAR = 3019;
+    private ShipColumnStore columnStore;
+    private ShipTrigramIndex trigramIndex;
+    private ShipFleetStats fleetStats;
+    private ShipCountCube countCube;
+    private ShipQueryCache queryCache;
+    private ShipQueryCoalescer coalescer;
+    private ShipEntityCache entityCache;
+    private ShipDataVersion dataVersion;
+    private List<ShipWriteListener> writeListeners = Collections.emptyList();
+    private int batchChunkSize;
+    private int exportFetchSize;
+    private int deleteChunkSize;
+    private ShipRules rules = new ShipRules(ShipRules.DEFAULT_CURRENT_YEAR);
     private static final ResponseEntity<Ship> BAD_REQUEST = new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    private static final ResponseEntity<Ship> PRECONDITION_FAILED = new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
 
     @Autowired
     public void setShipRepository(ShipRepository shipRepository) {
         this.shipRepository = shipRepository;
     }
 
-    private Predicate toPredicate(Root<Ship> root, CriteriaBuilder criteriaBuilder, String name,
-                                  String planet, ShipType shipType, Long after, Long before, Boolean isUsed,
-                                  Double minSpeed, Double maxSpeed, Integer minCrewSize, Integer maxCrewSize,
-                                  Double minRating, Double maxRating) {
+    @Autowired
+    public void setColumnStore(ShipColumnStore columnStore) {
+        this.columnStore = columnStore;
+    }
 
-        List<Predicate> predicates = new ArrayList<>();
+    @Autowired
+    public void setTrigramIndex(ShipTrigramIndex trigramIndex) {
+        this.trigramIndex = trigramIndex;
+    }
 
-        if (name != null)
-            predicates.add(criteriaBuilder.and(criteriaBuilder.like(root.get("name"), "%" + name + "%")));
-        if (planet != null)
-            predicates.add(criteriaBuilder.and(criteriaBuilder.like(root.get("planet"), "%" + planet + "%")));
-        if (shipType != null)
-            predicates.add(criteriaBuilder.and(criteriaBuilder.equal(root.get("shipType"), shipType)));
-        if (after != null)
-            predicates.add(criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(root.get("prodDate"), new Date(after))));
-        if (before != null) {
-            Calendar calendar = Calendar.getInstance();
-            calendar.setTimeInMillis(before);
-            calendar.set(calendar.get(Calendar.YEAR), Calendar.JANUARY, 1, 0, 0, 0);
-            predicates.add(criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(root.get("prodDate"), new Date(calendar.getTimeInMillis()))));
-        }
-        if (isUsed != null) predicates.add(criteriaBuilder.and(criteriaBuilder.equal(root.get("isUsed"), isUsed)));
-        if (minSpeed != null)
-            predicates.add(criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(root.get("speed"), minSpeed)));
-        if (maxSpeed != null)
-            predicates.add(criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(root.get("speed"), maxSpeed)));
-        if (minCrewSize != null)
-            predicates.add(criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(root.get("crewSize"), minCrewSize)));
-        if (maxCrewSize != null)
-            predicates.add(criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(root.get("crewSize"), maxCrewSize)));
-        if (minRating != null)
-            predicates.add(criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(root.get("rating"), minRating)));
-        if (maxRating != null)
-            predicates.add(criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(root.get("rating"), maxRating)));
+    @Autowired
+    public void setCountCube(ShipCountCube countCube) {
+        this.countCube = countCube;
+    }
 
-        return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    @Autowired
+    public void setFleetStats(ShipFleetStats fleetStats) {
+        this.fleetStats = fleetStats;
     }
 
-    private double calcShipRating(double speed, double coefficient, Date shipProdYear) {
-        Calendar date = Calendar.getInstance();
-        date.setTimeInMillis(shipProdYear.getTime());
-        double rating = (80 * speed * coefficient) / (CURRENT_YEAR - date.get(Calendar.YEAR) + 1);
-        return new BigDecimal(rating).setScale(2, RoundingMode.HALF_DOWN).doubleValue();
+    @Autowired
+    public void setQueryCache(ShipQueryCache queryCache) {
+        this.queryCache = queryCache;
     }
 
-    private boolean isValidId(Long id) {
-        if (id != null) {
-            return id > 0;
-        }
-        return false;
+    @Autowired
+    public void setCoalescer(ShipQueryCoalescer coalescer) {
+        this.coalescer = coalescer;
     }
 
-    private boolean isValidParams(Object param) {
-        if (param instanceof String) {
-            String str = (String) param;
-            return !str.isEmpty() & str.length() <= 50;
-        }
+    @Autowired
+    public void setEntityCache(ShipEntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
 
-        if (param instanceof Enum) return true;
+    @Autowired
+    public void setDataVersion(ShipDataVersion dataVersion) {
+        this.dataVersion = dataVersion;
+    }
 
-        if (param instanceof Date) {
-            Date date = (Date) param;
-            if (date.getTime() > 0) {
-                Calendar calendar = Calendar.getInstance();
-                calendar.set(2800, Calendar.JANUARY, 1, 0, 0, 0);
-                if (date.after(calendar.getTime())) {
-                    calendar.set(CURRENT_YEAR, Calendar.getInstance().get(Calendar.MONTH), Calendar.DATE);
-                    return date.before(calendar.getTime());
-                }
-            }
-        }
+    @Value("${ship.rating.current-year:3019}")
+    public void setCurrentYear(int currentYear) {
+        this.rules = new ShipRules(currentYear);
+    }
+
+    @Value("${ship.batch.chunk-size:500}")
+    public void setBatchChunkSize(int batchChunkSize) {
+        this.batchChunkSize = batchChunkSize;
+    }
 
-        if (param instanceof Boolean) return true;
+    @Value("${ship.export.fetch-size:1000}")
+    public void setExportFetchSize(int exportFetchSize) {
+        this.exportFetchSize = exportFetchSize;
+    }
 
-        if (param instanceof Double) {
-            double d = (double) param;
-            return d >= 0.01D & d <= 0.99D;
-        }
+    @Value("${ship.delete.chunk-size:1000}")
+    public void setDeleteChunkSize(int deleteChunkSize) {
+        this.deleteChunkSize = deleteChunkSize;
+    }
+
+    @Autowired(required = false)
+    public void setWriteListeners(List<ShipWriteListener> writeListeners) {
+        this.writeListeners = writeListeners;
+    }
+
+    Predicate toPredicate(Root<Ship> root, CriteriaBuilder criteriaBuilder, ShipFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (filter.getName() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.like(root.get("name"), "%" + filter.getName() + "%")));
+        if (filter.getPlanet() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.like(root.get("planet"), "%" + filter.getPlanet() + "%")));
+        if (filter.getShipType() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.equal(root.get("shipType"), filter.getShipType())));
+        if (filter.getAfter() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(root.get("prodDate"), new Date(filter.getAfter()))));
+        if (filter.getBefore() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(root.get("prodDate"), new Date(filter.getBefore()))));
+        if (filter.getUsed() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.equal(root.get("isUsed"), filter.getUsed())));
+        if (filter.getMinSpeed() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(root.get("speed"), filter.getMinSpeed())));
+        if (filter.getMaxSpeed() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(root.get("speed"), filter.getMaxSpeed())));
+        if (filter.getMinCrewSize() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(root.get("crewSize"), filter.getMinCrewSize())));
+        if (filter.getMaxCrewSize() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(root.get("crewSize"), filter.getMaxCrewSize())));
+        if (filter.getMinRating() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(root.get("rating"), filter.getMinRating())));
+        if (filter.getMaxRating() != null)
+            predicates.add(criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(root.get("rating"), filter.getMaxRating())));
 
-        if (param instanceof Integer) {
-            int i = (int) param;
-            return i >= 1 & i <= 9999;
+        return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    }
+
+    private Specification<Ship> toSpecification(ShipFilter filter) {
+        Set<Long> candidates = trigramIndex.candidates(filter);
+        return (root, query, criteriaBuilder) -> {
+            Predicate predicate = toPredicate(root, criteriaBuilder, filter);
+            if (candidates == null) return predicate;
+            return candidates.isEmpty() ? criteriaBuilder.disjunction()
+                    : criteriaBuilder.and(predicate, root.get("id").in(candidates));
+        };
+    }
+
+    private Predicate afterCursor(Root<Ship> root, CriteriaBuilder criteriaBuilder, ShipCursor cursor) {
+        Predicate idAfter = criteriaBuilder.greaterThan(root.get("id"), cursor.getId());
+        if (cursor.getOrder() == ShipOrder.ID) return idAfter;
+
+        if (cursor.getOrder() == ShipOrder.DATE) {
+            Path<Date> field = root.get(cursor.getOrder().getFieldName());
+            if (cursor.getKey() == null) return nullKeyAfter(criteriaBuilder, field, idAfter);
+            Date key = new Date(cursor.getKey().longValue());
+            return criteriaBuilder.or(criteriaBuilder.greaterThan(field, key),
+                    criteriaBuilder.and(criteriaBuilder.equal(field, key), idAfter));
         }
 
+        Path<Double> field = root.get(cursor.getOrder().getFieldName());
+        if (cursor.getKey() == null) return nullKeyAfter(criteriaBuilder, field, idAfter);
+        Double key = cursor.getKey().doubleValue();
+        return criteriaBuilder.or(criteriaBuilder.greaterThan(field, key),
+                criteriaBuilder.and(criteriaBuilder.equal(field, key), idAfter));
+    }
+
+    private Predicate nullKeyAfter(CriteriaBuilder criteriaBuilder, Path<?> field, Predicate idAfter) {
+        return criteriaBuilder.or(criteriaBuilder.isNotNull(field),
+                criteriaBuilder.and(criteriaBuilder.isNull(field), idAfter));
+    }
+
+    double calcShipRating(double speed, double coefficient, Date shipProdYear) {
+        return rules.rating(speed, coefficient, shipProdYear.getTime());
+    }
+
+    private boolean isValidId(Long id) {
+        if (id != null) {
+            return id > 0;
+        }
         return false;
     }
 
-    private double getCoefficient(Ship ship) {
+    double getCoefficient(Ship ship) {
         double coefficient = 1;
-        if (!isValidParams(ship.getUsed())) {
+        if (!rules.isValidUsed(ship.getUsed())) {
             ship.setUsed(false);
         } else if (ship.getUsed()) coefficient = 0.5D;
         return coefficient;
@@ -131,11 +218,34 @@ public class ShipServiceImpl implements ShipService {
                                    Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order,
                                    Integer pageNumber, Integer pageSize) {
 
-        return shipRepository.findAll((Specification<Ship>) (root, query, criteriaBuilder) ->
-                        toPredicate(
-                                root, criteriaBuilder, name, planet, shipType, after, before, isUsed, minSpeed,
-                                maxSpeed, minCrewSize, maxCrewSize, minRating, maxRating),
-                PageRequest.of(pageNumber, pageSize, Sort.by(order.getFieldName()))).getContent();
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                minCrewSize, maxCrewSize, minRating, maxRating);
+        return ReadRouting.onReplica(() -> queryCache.getList(filter, order, pageNumber, pageSize,
+                () -> coalescer.getList(filter, order, pageNumber, pageSize,
+                        () -> findList(filter, order, pageNumber, pageSize))));
+    }
+
+    @Override
+    public List<Ship> getShipsListAfter(String name, String planet, ShipType shipType, Long after, Long before,
+                                        Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize,
+                                        Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order,
+                                        ShipCursor cursor, Integer pageSize) {
+
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                minCrewSize, maxCrewSize, minRating, maxRating);
+        return ReadRouting.onReplica(() -> findAfter(filter, order, cursor, pageSize));
+    }
+
+    private List<Ship> findAfter(ShipFilter filter, ShipOrder order, ShipCursor cursor, int pageSize) {
+        if (columnStore.isEnabled()) return columnStore.findAfter(filter, order, cursor, pageSize);
+
+        Sort sort = order == ShipOrder.ID ? Sort.by("id") : Sort.by(order.getFieldName(), "id");
+        Specification<Ship> specification = toSpecification(filter);
+        if (cursor != null) {
+            specification = specification.and((root, query, criteriaBuilder) ->
+                    afterCursor(root, criteriaBuilder, cursor));
+        }
+        return shipRepository.findSlice(specification, PageRequest.of(0, pageSize, sort)).getContent();
     }
 
     @Override
@@ -143,119 +253,321 @@ public class ShipServiceImpl implements ShipService {
                                  Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize,
                                  Integer maxCrewSize, Double minRating, Double maxRating) {
 
-        return (int) shipRepository.count((Specification<Ship>) (root, query, criteriaBuilder) ->
-                toPredicate(
-                        root, criteriaBuilder, name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
-                        minCrewSize, maxCrewSize, minRating, maxRating));
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                minCrewSize, maxCrewSize, minRating, maxRating);
+        return ReadRouting.onReplica(() -> queryCache.getCount(filter,
+                () -> coalescer.getCount(filter, () -> count(filter))));
     }
 
     @Override
-    public ResponseEntity<Ship> createShip(Ship ship) {
-        if (!(isValidParams(ship.getName()) & isValidParams(ship.getPlanet()) &
-                isValidParams(ship.getShipType()) & isValidParams(ship.getProdDate()) &
-                isValidParams(ship.getSpeed()) & isValidParams(ship.getCrewSize()))) {
+    public ShipsPage getShipsPage(String name, String planet, ShipType shipType, Long after, Long before,
+                                  Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize,
+                                  Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order,
+                                  Integer pageNumber, Integer pageSize) {
+
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                minCrewSize, maxCrewSize, minRating, maxRating);
+        return ReadRouting.onReplica(() -> queryCache.getPage(filter, order, pageNumber, pageSize,
+                () -> coalescer.getPage(filter, order, pageNumber, pageSize,
+                        () -> findPage(filter, order, pageNumber, pageSize))));
+    }
+
+    @Override
+    public ShipStats getShipStats() {
+        return fleetStats.snapshot();
+    }
 
-            return BAD_REQUEST;
+    @Override
+    public void exportShips(String name, String planet, ShipType shipType, Long after, Long before,
+                            Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize,
+                            Integer maxCrewSize, Double minRating, Double maxRating, ShipOrder order,
+                            ShipExportFormat format, OutputStream out) throws IOException {
+
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                minCrewSize, maxCrewSize, minRating, maxRating);
+        Sort sort = order == ShipOrder.ID ? Sort.by("id") : Sort.by(order.getFieldName(), "id");
+
+        try (ShipExportWriter writer = ShipExportWriter.create(format, out)) {
+            shipRepository.forEach(toSpecification(filter), sort, exportFetchSize, ship -> {
+                try {
+                    writer.write(ship);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+    }
+
+    private List<Ship> findList(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize) {
+        if (columnStore.isEnabled()) return columnStore.find(filter, order, pageNumber, pageSize);
+
+        return shipRepository.findSlice(toSpecification(filter),
+                PageRequest.of(pageNumber, pageSize, Sort.by(order.getFieldName()))).getContent();
+    }
 
+    private Integer count(ShipFilter filter) {
+        Integer count = countCube.count(filter);
+        if (count != null) return count;
+        if (columnStore.isEnabled()) return columnStore.count(filter);
+
+        return (int) shipRepository.count(toSpecification(filter));
+    }
+
+    private ShipsPage findPage(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize) {
+        if (columnStore.isEnabled()) return columnStore.findPage(filter, order, pageNumber, pageSize);
+
+        Page<Ship> page = shipRepository.findPage(toSpecification(filter),
+                PageRequest.of(pageNumber, pageSize, Sort.by(order.getFieldName())));
+        return new ShipsPage(page.getContent(), (int) page.getTotalElements());
+    }
+
+    private void save(Ship ship) {
+        dataVersion.beginWrite();
+        try {
+            shipRepository.saveAndFlush(ship);
+            writeListeners.forEach(listener -> listener.shipSaved(ship));
+        } finally {
+            dataVersion.endWrite();
+        }
+    }
+
+    private boolean delete(Long id, Long version) {
+        dataVersion.beginWrite();
+        try {
+            if (shipRepository.deleteDirect(id, version) == 0) return false;
+            writeListeners.forEach(listener -> listener.shipDeleted(id));
+            return true;
+        } finally {
+            dataVersion.endWrite();
+        }
+    }
+
+    private boolean isValidNewShip(Ship ship) {
+        return rules.isValidText(ship.getName()) & rules.isValidText(ship.getPlanet()) &
+                rules.isValidShipType(ship.getShipType()) & rules.isValidProdDate(ship.getProdDate()) &
+                rules.isValidSpeed(ship.getSpeed()) & rules.isValidCrewSize(ship.getCrewSize());
+    }
+
+    @Override
+    public ResponseEntity<Ship> createShip(Ship ship) {
+        if (!isValidNewShip(ship)) return BAD_REQUEST;
+
+        // A body id must not decide between insert and update; with a nullable @Version that is up to the version.
+        ship.setId(null);
+        ship.setProdDate(rules.storedDate(ship.getProdDate()));
         ship.setRating(calcShipRating(ship.getSpeed(), getCoefficient(ship), ship.getProdDate()));
 
-        shipRepository.saveAndFlush(ship);
+        save(ship);
         return new ResponseEntity<>(ship, HttpStatus.OK);
     }
 
+    @Override
+    public ResponseEntity<ShipBatchResult> createShips(List<Ship> ships) {
+        if (ships == null || ships.isEmpty()) return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+
+        ShipBatchResult.Item[] items = new ShipBatchResult.Item[ships.size()];
+        List<Integer> valid = new ArrayList<>(ships.size());
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            if (ship == null || !isValidNewShip(ship)) {
+                items[i] = new ShipBatchResult.Item(i, null, ShipBatchResult.Status.INVALID, "Invalid ship parameters");
+                continue;
+            }
+            ship.setId(null);
+            ship.setProdDate(rules.storedDate(ship.getProdDate()));
+            ship.setRating(calcShipRating(ship.getSpeed(), getCoefficient(ship), ship.getProdDate()));
+            valid.add(i);
+        }
+
+        dataVersion.beginWrite();
+        try {
+            for (int from = 0; from < valid.size(); from += batchChunkSize) {
+                List<Integer> chunk = valid.subList(from, Math.min(from + batchChunkSize, valid.size()));
+                List<Ship> chunkShips = new ArrayList<>(chunk.size());
+                for (int index : chunk) chunkShips.add(ships.get(index));
+
+                try {
+                    shipRepository.insertBatch(chunkShips);
+                    for (int index : chunk) items[index] = created(index, ships.get(index));
+                } catch (DataAccessException e) {
+                    for (int index : chunk) items[index] = insertOne(index, ships.get(index));
+                }
+            }
+        } finally {
+            dataVersion.endWrite();
+        }
+
+        ShipBatchResult result = new ShipBatchResult();
+        for (ShipBatchResult.Item item : items) result.add(item);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    private ShipBatchResult.Item insertOne(int index, Ship ship) {
+        ship.setId(null);
+        try {
+            shipRepository.insertBatch(Collections.singletonList(ship));
+            return created(index, ship);
+        } catch (DataAccessException e) {
+            ship.setId(null);
+            return new ShipBatchResult.Item(index, null, ShipBatchResult.Status.FAILED, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private ShipBatchResult.Item created(int index, Ship ship) {
+        writeListeners.forEach(listener -> listener.shipSaved(ship));
+        return new ShipBatchResult.Item(index, ship.getId(), ShipBatchResult.Status.CREATED, null);
+    }
+
     @Override
     public ResponseEntity<Ship> getShip(Long id) {
+        return ReadRouting.onReplica(() -> findShip(id));
+    }
+
+    private ResponseEntity<Ship> findShip(Long id) {
         if (isValidId(id)) {
-            Optional<Ship> ship = shipRepository.findById(id);
-            return ship.map(value ->
-                    new ResponseEntity<>(value, HttpStatus.OK)).orElseGet(() ->
+            Optional<Ship> ship = entityCache.get(id, shipRepository::findById);
+            return ship.map(this::found).orElseGet(() ->
                     new ResponseEntity<>(HttpStatus.NOT_FOUND));
         }
 
         return BAD_REQUEST;
     }
 
-    @Override
-    public ResponseEntity<Ship> updateShip(Long id, Ship ship) {
-        if (!isValidId(id)) return BAD_REQUEST;
-        ResponseEntity<Ship> response = getShip(id);
-
-        if (response.getBody() != null) {
-            Ship shipFromDb = response.getBody();
-            if (ship.getName() == null & ship.getPlanet() == null & ship.getShipType() == null &
-                    ship.getProdDate() == null & ship.getUsed() == null &
-                    ship.getSpeed() == null & ship.getCrewSize() == null) {
+    private ResponseEntity<Ship> found(Ship ship) {
+        // The body depends on Accept, so caches must key on it.
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(ship);
+    }
 
-                return response;
-            }
+    @Override
+    public Long getShipVersion(Long id) {
+        if (!isValidId(id)) return null;
+        return ReadRouting.onReplica(() -> entityCache.isEnabled()
+                ? entityCache.get(id, shipRepository::findById).map(Ship::getVersion).orElse(null)
+                : shipRepository.findVersion(id));
+    }
 
-            if (ship.getName() != null) {
-                if (!isValidParams(ship.getName())) {
-                    return BAD_REQUEST;
-                } else shipFromDb.setName(ship.getName());
-            }
+    @Override
+    public ResponseEntity<Ship> updateShip(Long id, Ship ship) {
+        return updateShip(id, ship, null);
+    }
 
-            if (ship.getPlanet() != null) {
-                if (!isValidParams(ship.getPlanet())) {
-                    return BAD_REQUEST;
-                } else shipFromDb.setPlanet(ship.getPlanet());
-            }
+    @Override
+    public ResponseEntity<Ship> updateShip(Long id, Ship ship, Long expectedVersion) {
+        if (!isValidId(id)) return BAD_REQUEST;
+        ResponseEntity<Ship> response = findShip(id);
+        Ship shipFromDb = response.getBody();
+        if (shipFromDb == null) return response;
+        if (expectedVersion != null && !expectedVersion.equals(shipFromDb.getVersion())) return PRECONDITION_FAILED;
 
-            if (ship.getShipType() != null) {
-                if (!isValidParams(ship.getShipType())) {
-                    return BAD_REQUEST;
-                } else shipFromDb.setShipType(ship.getShipType());
-            }
+        if (ship.getName() == null & ship.getPlanet() == null & ship.getShipType() == null &
+                ship.getProdDate() == null & ship.getUsed() == null &
+                ship.getSpeed() == null & ship.getCrewSize() == null) {
 
-            if (ship.getProdDate() != null) {
-                if (!isValidParams(ship.getProdDate())) {
-                    return BAD_REQUEST;
-                } else shipFromDb.setProdDate(new Date(ship.getProdDate().getTime()));
-            }
+            return response;
+        }
 
-            if (ship.getUsed() != null) {
-                if (!isValidParams(ship.getUsed())) {
-                    return BAD_REQUEST;
-                } else shipFromDb.setUsed(ship.getUsed());
-            }
+        if (ship.getName() != null && !rules.isValidText(ship.getName())) return BAD_REQUEST;
+        if (ship.getPlanet() != null && !rules.isValidText(ship.getPlanet())) return BAD_REQUEST;
+        if (ship.getShipType() != null && !rules.isValidShipType(ship.getShipType())) return BAD_REQUEST;
+        if (ship.getProdDate() != null && !rules.isValidProdDate(ship.getProdDate())) return BAD_REQUEST;
+        if (ship.getUsed() != null && !rules.isValidUsed(ship.getUsed())) return BAD_REQUEST;
+        if (ship.getSpeed() != null && !rules.isValidSpeed(ship.getSpeed())) return BAD_REQUEST;
+        if (ship.getCrewSize() != null && !rules.isValidCrewSize(ship.getCrewSize())) return BAD_REQUEST;
+
+        Ship changes = new Ship();
+        changes.setName(ship.getName());
+        changes.setPlanet(ship.getPlanet());
+        changes.setShipType(ship.getShipType());
+        if (ship.getProdDate() != null) changes.setProdDate(rules.storedDate(ship.getProdDate()));
+        changes.setUsed(ship.getUsed());
+        changes.setSpeed(ship.getSpeed());
+        changes.setCrewSize(ship.getCrewSize());
+        double coefficient = getCoefficient(ship);
+
+        for (int attempt = 1; ; attempt++) {
+            double speed = changes.getSpeed() != null ? changes.getSpeed() : shipFromDb.getSpeed();
+            Date date = changes.getProdDate() != null ? changes.getProdDate() : shipFromDb.getProdDate();
+            changes.setRating(calcShipRating(speed, coefficient, date));
+
+            if (update(shipFromDb, changes)) return found(shipFromDb);
+            if (expectedVersion != null) return PRECONDITION_FAILED;
+            if (attempt == MAX_UPDATE_ATTEMPTS) return new ResponseEntity<>(HttpStatus.CONFLICT);
+
+            Optional<Ship> current = shipRepository.findById(id);
+            if (!current.isPresent()) return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            shipFromDb = current.get();
+        }
+    }
 
-            if (ship.getSpeed() != null) {
-                if (!isValidParams(ship.getSpeed())) {
-                    return BAD_REQUEST;
-                } else shipFromDb.setSpeed(ship.getSpeed());
-            }
+    private boolean update(Ship ship, Ship changes) {
+        dataVersion.beginWrite();
+        try {
+            if (shipRepository.updateIfVersion(ship.getId(), ship.getVersion(), changes) == 0) return false;
+
+            if (changes.getName() != null) ship.setName(changes.getName());
+            if (changes.getPlanet() != null) ship.setPlanet(changes.getPlanet());
+            if (changes.getShipType() != null) ship.setShipType(changes.getShipType());
+            if (changes.getProdDate() != null) ship.setProdDate(changes.getProdDate());
+            if (changes.getUsed() != null) ship.setUsed(changes.getUsed());
+            if (changes.getSpeed() != null) ship.setSpeed(changes.getSpeed());
+            if (changes.getCrewSize() != null) ship.setCrewSize(changes.getCrewSize());
+            ship.setRating(changes.getRating());
+            ship.setVersion(ship.getVersion() + 1);
+            writeListeners.forEach(listener -> listener.shipSaved(ship));
+            return true;
+        } finally {
+            dataVersion.endWrite();
+        }
+    }
 
-            if (ship.getCrewSize() != null) {
-                if (!isValidParams(ship.getCrewSize())) {
-                    return BAD_REQUEST;
-                } else shipFromDb.setCrewSize(ship.getCrewSize());
-            }
+    @Override
+    public ResponseEntity<Ship> deleteShip(Long id) {
+        return deleteShip(id, false);
+    }
 
-            if (ship.getRating() == null) {
-                double speed;
-                Date date;
-                if (ship.getSpeed() != null) {
-                    speed = ship.getSpeed();
-                } else speed = shipFromDb.getSpeed();
-                if (ship.getProdDate() != null) {
-                    date = ship.getProdDate();
-                } else date = shipFromDb.getProdDate();
-
-                shipFromDb.setRating(calcShipRating(speed, getCoefficient(ship), date));
-            } else {
-                shipFromDb.setRating(calcShipRating(shipFromDb.getSpeed(), getCoefficient(ship), shipFromDb.getProdDate()));
-            }
+    @Override
+    public ResponseEntity<Ship> deleteShip(Long id, boolean returnShip) {
+        if (!isValidId(id)) return BAD_REQUEST;
+        if (!returnShip) {
+            return new ResponseEntity<>(delete(id, null) ? HttpStatus.OK : HttpStatus.NOT_FOUND);
+        }
 
-            shipRepository.saveAndFlush(shipFromDb);
+        for (int attempt = 1; ; attempt++) {
+            Optional<Ship> ship = shipRepository.findById(id);
+            if (!ship.isPresent()) return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            if (delete(id, ship.get().getVersion())) return new ResponseEntity<>(ship.get(), HttpStatus.OK);
+            if (attempt == MAX_UPDATE_ATTEMPTS) return new ResponseEntity<>(HttpStatus.CONFLICT);
         }
-        return response;
     }
 
     @Override
-    public ResponseEntity<Ship> deleteShip(Long id) {
-        ResponseEntity<Ship> response = getShip(id);
-        if (response.getBody() != null) shipRepository.deleteById(id);
-        return response;
+    public ResponseEntity<Integer> deleteShips(String name, String planet, ShipType shipType, Long after, Long before,
+                                               Boolean isUsed, Double minSpeed, Double maxSpeed, Integer minCrewSize,
+                                               Integer maxCrewSize, Double minRating, Double maxRating) {
+
+        ShipFilter filter = new ShipFilter(name, planet, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                minCrewSize, maxCrewSize, minRating, maxRating);
+        if (filter.isEmpty()) return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+
+        Specification<Ship> specification = toSpecification(filter);
+        int deleted = 0;
+        Long lastId = null;
+        while (true) {
+            List<Long> ids = shipRepository.findIds(specification, lastId, deleteChunkSize);
+            if (ids.isEmpty()) break;
+
+            dataVersion.beginWrite();
+            try {
+                deleted += shipRepository.deleteByIds(ids);
+                ids.forEach(id -> writeListeners.forEach(listener -> listener.shipDeleted(id)));
+            } finally {
+                dataVersion.endWrite();
+            }
+            if (ids.size() < deleteChunkSize) break;
+            lastId = ids.get(ids.size() - 1);
+        }
+        return new ResponseEntity<>(deleted, HttpStatus.OK);
     }
 }
@@ -0,0 +1,13 @@
+package com.space.service;
+
+import com.space.model.Ship;
+
+/**
+ * Receives every ship written or removed through {@link ShipService}, after the change reached the database.
+ */
+public interface ShipWriteListener {
+
+    void shipSaved(Ship ship);
+
+    void shipDeleted(Long id);
+}
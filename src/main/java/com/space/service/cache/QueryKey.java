@@ -0,0 +1,58 @@
+package com.space.service.cache;
+
+import com.space.controller.ShipOrder;
+import com.space.service.ShipFilter;
+
+import java.util.Objects;
+
+/**
+ * Identifies a list, page or count query by its normalized filter, order and page.
+ */
+final class QueryKey {
+    private final Kind kind;
+    private final ShipFilter filter;
+    private final ShipOrder order;
+    private final int pageNumber;
+    private final int pageSize;
+
+    private QueryKey(Kind kind, ShipFilter filter, ShipOrder order, int pageNumber, int pageSize) {
+        this.kind = kind;
+        this.filter = filter;
+        this.order = order;
+        this.pageNumber = pageNumber;
+        this.pageSize = pageSize;
+    }
+
+    static QueryKey list(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize) {
+        return new QueryKey(Kind.LIST, filter, order, pageNumber, pageSize);
+    }
+
+    static QueryKey page(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize) {
+        return new QueryKey(Kind.PAGE, filter, order, pageNumber, pageSize);
+    }
+
+    static QueryKey count(ShipFilter filter) {
+        return new QueryKey(Kind.COUNT, filter, null, 0, 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QueryKey key = (QueryKey) o;
+        return pageNumber == key.pageNumber &&
+                pageSize == key.pageSize &&
+                kind == key.kind &&
+                order == key.order &&
+                filter.equals(key.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, filter, order, pageNumber, pageSize);
+    }
+
+    private enum Kind {
+        LIST, PAGE, COUNT
+    }
+}
@@ -0,0 +1,128 @@
+package com.space.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.space.config.ReadRouting;
+import com.space.model.Ship;
+import com.space.service.ShipDataVersion;
+import com.space.service.ShipWriteListener;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of single ships by id, including short-lived negative entries for ids that do not exist.
+ * Callers always get their own copy, so the cached ship can not be changed behind the cache's back.
+ * <p>
+ * Saved and deleted ships are invalidated through {@link ShipWriteListener}. A loaded ship is only stored
+ * if no write has started or finished while it was loaded, so a slow read can not put back a stale row.
+ * Eviction is frequency-aware (W-TinyLFU). Disabled unless {@code ship.cache.entity.enabled=true}.
+ */
+@Component
+public class ShipEntityCache implements ShipWriteListener, InitializingBean {
+    private static final Ship MISSING = new Ship();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private ShipDataVersion dataVersion;
+    private boolean enabled;
+    private long maxSize;
+    private long ttlMillis;
+    private long negativeTtlMillis;
+    private Cache<Long, Ship> cache;
+
+    @Autowired
+    public void setDataVersion(ShipDataVersion dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+
+    @Value("${ship.cache.entity.enabled:false}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Value("${ship.cache.entity.max-size:10000}")
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Value("${ship.cache.entity.ttl-ms:600000}")
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Value("${ship.cache.entity.negative-ttl-ms:5000}")
+    public void setNegativeTtlMillis(long negativeTtlMillis) {
+        this.negativeTtlMillis = negativeTtlMillis;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, Ship>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Ship ship, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(ship == MISSING ? negativeTtlMillis : ttlMillis);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Ship ship, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, ship, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Ship ship, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<Ship> get(Long id, Function<Long, Optional<Ship>> loader) {
+        if (!enabled) return loader.apply(id);
+
+        Ship cached = cache.getIfPresent(id);
+        if (cached != null) {
+            hits.increment();
+            return cached == MISSING ? Optional.empty() : Optional.of(new Ship(cached));
+        }
+
+        misses.increment();
+        long stamp = dataVersion.stamp();
+        Optional<Ship> ship = ReadRouting.onPrimary(() -> loader.apply(id));
+        if (stamp != ShipDataVersion.WRITE_IN_PROGRESS) {
+            Ship value = ship.map(Ship::new).orElse(MISSING);
+            cache.asMap().compute(id, (key, current) ->
+                    current == null && dataVersion.stamp() == stamp ? value : current);
+        }
+        return ship;
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), cache.stats().evictionCount(), cache.estimatedSize());
+    }
+
+    @Override
+    public void shipSaved(Ship ship) {
+        if (enabled) cache.invalidate(ship.getId());
+    }
+
+    @Override
+    public void shipDeleted(Long id) {
+        if (enabled) cache.invalidate(id);
+    }
+}
@@ -0,0 +1,93 @@
+package com.space.service.cache;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.space.model.Ship;
+import com.space.service.ShipWriteListener;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of each ship's encoded JSON, so responses copy bytes instead of serializing the ship again.
+ * Entries are keyed by id and checked against the ship's version, which every write increments; ships
+ * without a version are never cached. Saved and deleted ships are dropped through {@link ShipWriteListener}.
+ * Disabled unless {@code ship.cache.json.enabled=true}.
+ */
+@Component
+public class ShipJsonCache implements ShipWriteListener, InitializingBean {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private boolean enabled;
+    private long maxSize;
+    private Cache<Long, Entry> cache;
+
+    @Value("${ship.cache.json.enabled:false}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Value("${ship.cache.json.max-size:100000}")
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the ship's JSON, encoding it with {@code encoder} on a miss, or {@code null} if it can not be cached.
+     */
+    public SerializableString get(Ship ship, Function<Ship, String> encoder) {
+        if (!enabled || ship.getId() == null || ship.getVersion() == null) return null;
+
+        Entry entry = cache.getIfPresent(ship.getId());
+        if (entry != null && entry.version == ship.getVersion()) {
+            hits.increment();
+            return entry.json;
+        }
+
+        misses.increment();
+        Entry encoded = new Entry(ship.getVersion(), new SerializedString(encoder.apply(ship)));
+        // Encode the UTF-8 bytes once here rather than on the first response that writes them.
+        encoded.json.asUnquotedUTF8();
+        cache.put(ship.getId(), encoded);
+        return encoded.json;
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), cache.stats().evictionCount(), cache.estimatedSize());
+    }
+
+    @Override
+    public void shipSaved(Ship ship) {
+        if (enabled) cache.invalidate(ship.getId());
+    }
+
+    @Override
+    public void shipDeleted(Long id) {
+        if (enabled) cache.invalidate(id);
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final SerializedString json;
+
+        Entry(long version, SerializedString json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
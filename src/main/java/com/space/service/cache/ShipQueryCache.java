@@ -0,0 +1,112 @@
+package com.space.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.space.config.ReadRouting;
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipsPage;
+import com.space.service.ShipDataVersion;
+import com.space.service.ShipFilter;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of list, page and count results keyed by the normalized filter, order and page.
+ * Every entry is tagged with the {@link ShipDataVersion} generation it was computed at and is only
+ * served while that generation is current, so a finished write is never hidden by an older result.
+ * <p>
+ * Eviction is frequency-aware (W-TinyLFU). Disabled unless {@code ship.cache.query.enabled=true}.
+ */
+@Component
+public class ShipQueryCache implements InitializingBean {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private ShipDataVersion dataVersion;
+    private boolean enabled;
+    private long maxSize;
+    private Cache<QueryKey, Entry> cache;
+
+    @Autowired
+    public void setDataVersion(ShipDataVersion dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+
+    @Value("${ship.cache.query.enabled:false}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Value("${ship.cache.query.max-size:10000}")
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+    }
+
+    public List<Ship> getList(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize,
+                              Supplier<List<Ship>> loader) {
+        return get(QueryKey.list(filter, order, pageNumber, pageSize),
+                () -> Collections.unmodifiableList(loader.get()));
+    }
+
+    public ShipsPage getPage(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize,
+                             Supplier<ShipsPage> loader) {
+        return get(QueryKey.page(filter, order, pageNumber, pageSize), () -> {
+            ShipsPage page = loader.get();
+            return new ShipsPage(Collections.unmodifiableList(page.getShips()), page.getCount());
+        });
+    }
+
+    public Integer getCount(ShipFilter filter, Supplier<Integer> loader) {
+        return get(QueryKey.count(filter), loader);
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), cache.stats().evictionCount(), cache.estimatedSize());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(QueryKey key, Supplier<T> loader) {
+        if (!enabled) return loader.get();
+
+        long stamp = dataVersion.stamp();
+        if (stamp == ShipDataVersion.WRITE_IN_PROGRESS) {
+            misses.increment();
+            return loader.get();
+        }
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.generation == stamp) {
+            hits.increment();
+            return (T) entry.value;
+        }
+
+        misses.increment();
+        // Cached results must not predate the last finished write, which a lagging replica could return.
+        T value = ReadRouting.onPrimary(loader);
+        cache.put(key, new Entry(stamp, value));
+        return value;
+    }
+
+    private static final class Entry {
+        private final long generation;
+        private final Object value;
+
+        Entry(long generation, Object value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.space.service.cache;
+
+import com.space.config.ReadRouting;
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipsPage;
+import com.space.service.ShipDataVersion;
+import com.space.service.ShipFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of list, page and count queries: concurrent callers with the same normalized
+ * query share one database call and its result. Flights are keyed by the {@link ShipDataVersion} generation
+ * as well, so a request never joins a query that started before a write it could already see had finished.
+ * Nothing is shared while a write is in progress. Enabled unless {@code ship.coalesce.enabled=false}.
+ */
+@Component
+public class ShipQueryCoalescer {
+    private final ConcurrentMap<Flight, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    private ShipDataVersion dataVersion;
+    private boolean enabled;
+
+    @Autowired
+    public void setDataVersion(ShipDataVersion dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+
+    @Value("${ship.coalesce.enabled:true}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Ship> getList(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize,
+                              Supplier<List<Ship>> loader) {
+        return get(QueryKey.list(filter, order, pageNumber, pageSize), loader);
+    }
+
+    public ShipsPage getPage(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize,
+                             Supplier<ShipsPage> loader) {
+        return get(QueryKey.page(filter, order, pageNumber, pageSize), loader);
+    }
+
+    public Integer getCount(ShipFilter filter, Supplier<Integer> loader) {
+        return get(QueryKey.count(filter), loader);
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getShared() {
+        return shared.sum();
+    }
+
+    /**
+     * Share of calls answered by another caller's query.
+     */
+    public double getSharedRatio() {
+        long total = calls.sum();
+        return total == 0 ? 0 : (double) shared.sum() / total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(QueryKey key, Supplier<T> loader) {
+        if (!enabled) return loader.get();
+
+        calls.increment();
+        long stamp = dataVersion.stamp();
+        if (stamp == ShipDataVersion.WRITE_IN_PROGRESS) return loader.get();
+
+        Flight flight = new Flight(key, stamp, ReadRouting.useReplica());
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flight, own);
+        if (running != null) {
+            shared.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                if (e.getCause() instanceof Error) throw (Error) e.getCause();
+                throw e;
+            }
+        }
+
+        try {
+            T value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flight, own);
+        }
+    }
+
+    private static final class Flight {
+        private final QueryKey key;
+        private final long generation;
+        private final boolean replica;
+
+        Flight(QueryKey key, long generation, boolean replica) {
+            this.key = key;
+            this.generation = generation;
+            this.replica = replica;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Flight flight = (Flight) o;
+            return generation == flight.generation &&
+                    replica == flight.replica &&
+                    key.equals(flight.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, generation, replica);
+        }
+    }
+}
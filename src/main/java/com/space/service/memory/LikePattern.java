@@ -0,0 +1,77 @@
+package com.space.service.memory;
+
+import java.text.Normalizer;
+
+/**
+ * The {@code LIKE '%x%'} match the SQL path runs for name and planet filters, under a case- and
+ * accent-insensitive collation: {@code %} and {@code _} in {@code x} are wildcards and {@code \} escapes them.
+ */
+final class LikePattern {
+    private static final char ANY = '%';
+    private static final char ONE = '_';
+    private static final char ESCAPE = '\\';
+
+    private final char[] chars;
+    private final boolean[] literal;
+
+    private LikePattern(char[] chars, boolean[] literal) {
+        this.chars = chars;
+        this.literal = literal;
+    }
+
+    static LikePattern contains(String fragment) {
+        String pattern = ANY + fragment + ANY;
+        char[] chars = new char[pattern.length()];
+        boolean[] literal = new boolean[pattern.length()];
+        int length = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            boolean escaped = c == ESCAPE && i + 1 < pattern.length();
+            if (escaped) c = pattern.charAt(++i);
+            chars[length] = fold(c);
+            literal[length++] = escaped || c != ANY && c != ONE;
+        }
+        char[] trimmedChars = new char[length];
+        boolean[] trimmedLiteral = new boolean[length];
+        System.arraycopy(chars, 0, trimmedChars, 0, length);
+        System.arraycopy(literal, 0, trimmedLiteral, 0, length);
+        return new LikePattern(trimmedChars, trimmedLiteral);
+    }
+
+    boolean matches(String value) {
+        if (value == null) return false;
+
+        // Greedy match that backtracks to the last '%' on a mismatch.
+        int v = 0;
+        int p = 0;
+        int star = -1;
+        int resume = 0;
+        while (v < value.length()) {
+            if (p < chars.length && !isAny(p) && (!literal[p] || chars[p] == fold(value.charAt(v)))) {
+                v++;
+                p++;
+            } else if (p < chars.length && isAny(p)) {
+                star = p++;
+                resume = v;
+            } else if (star >= 0) {
+                p = star + 1;
+                v = ++resume;
+            } else {
+                return false;
+            }
+        }
+        while (p < chars.length && isAny(p)) p++;
+        return p == chars.length;
+    }
+
+    private boolean isAny(int p) {
+        return !literal[p] && chars[p] == ANY;
+    }
+
+    private static char fold(char c) {
+        c = Character.toLowerCase(Character.toUpperCase(c));
+        if (c < 128) return c;
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        return decomposed.charAt(0) < 128 ? Character.toLowerCase(decomposed.charAt(0)) : c;
+    }
+}
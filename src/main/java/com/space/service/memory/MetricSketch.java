@@ -0,0 +1,104 @@
+package com.space.service.memory;
+
+import com.space.model.ShipStats;
+
+/**
+ * Removable summary of one numeric field in a fixed amount of memory: running sums for the moments and a
+ * fixed-width histogram that also keeps the smallest and largest value seen in each bucket. Min, max and the
+ * percentiles come from the outermost non-empty buckets and are interpolated between those per-bucket bounds.
+ * Removing a bucket's extreme value leaves its bound in place until the bucket empties, so they stay within one
+ * bucket width of the exact answer. Not thread-safe.
+ */
+final class MetricSketch {
+    private static final double EPSILON = 1e-9;
+
+    private final double lower;
+    private final double width;
+    private final long[] buckets;
+    private final double[] bucketMin;
+    private final double[] bucketMax;
+
+    private long count;
+    private double sum;
+    private double sumOfSquares;
+
+    MetricSketch(double lower, double upper, int bucketCount) {
+        this.lower = lower;
+        this.width = (upper - lower) / bucketCount;
+        this.buckets = new long[bucketCount];
+        this.bucketMin = new double[bucketCount];
+        this.bucketMax = new double[bucketCount];
+    }
+
+    void add(double value) {
+        int bucket = bucket(value);
+        if (buckets[bucket] == 0) {
+            bucketMin[bucket] = value;
+            bucketMax[bucket] = value;
+        } else {
+            bucketMin[bucket] = Math.min(bucketMin[bucket], value);
+            bucketMax[bucket] = Math.max(bucketMax[bucket], value);
+        }
+        buckets[bucket]++;
+
+        count++;
+        sum += value;
+        sumOfSquares += value * value;
+    }
+
+    void remove(double value) {
+        int bucket = bucket(value);
+        if (buckets[bucket] == 0) return;
+        buckets[bucket]--;
+
+        count--;
+        sum -= value;
+        sumOfSquares -= value * value;
+        if (count == 0) {
+            sum = 0;
+            sumOfSquares = 0;
+        }
+    }
+
+    ShipStats.Metric snapshot() {
+        if (count == 0) return new ShipStats.Metric(0, null, null, null, null, null, null, null);
+
+        double mean = sum / count;
+        double variance = Math.max(0, sumOfSquares / count - mean * mean);
+        return new ShipStats.Metric(count, min(), max(), mean, Math.sqrt(variance),
+                quantile(0.5), quantile(0.9), quantile(0.99));
+    }
+
+    private double min() {
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != 0) return bucketMin[i];
+        }
+        throw new IllegalStateException("Empty sketch");
+    }
+
+    private double max() {
+        for (int i = buckets.length - 1; i >= 0; i--) {
+            if (buckets[i] != 0) return bucketMax[i];
+        }
+        throw new IllegalStateException("Empty sketch");
+    }
+
+    private double quantile(double q) {
+        double rank = q * count;
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == 0) continue;
+            if (seen + buckets[i] >= rank) {
+                double fraction = (rank - seen) / buckets[i];
+                return bucketMin[i] + fraction * (bucketMax[i] - bucketMin[i]);
+            }
+            seen += buckets[i];
+        }
+        return max();
+    }
+
+    private int bucket(double value) {
+        int index = (int) Math.floor((value - lower) / width + EPSILON);
+        return Math.min(buckets.length - 1, Math.max(0, index));
+    }
+}
@@ -0,0 +1,439 @@
+package com.space.service.memory;
+
+import com.space.controller.ShipCursor;
+import com.space.controller.ShipOrder;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.model.ShipsPage;
+import com.space.repository.ShipRepository;
+import com.space.service.ShipFilter;
+import com.space.service.ShipWriteListener;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process copy of the ship table kept as primitive columns. Answers the list and count queries
+ * without touching the database; {@link com.space.service.ShipServiceImpl} keeps it current with write-through.
+ * <p>
+ * Disabled unless {@code ship.engine.in-memory=true}. Rows changed behind the service's back are not seen.
+ */
+@Component
+public class ShipColumnStore implements ShipWriteListener, InitializingBean {
+    private static final int LOAD_CHUNK_SIZE = 10_000;
+    private static final long NULL_DATE = Long.MIN_VALUE;
+    private static final int NULL_CREW_SIZE = Integer.MIN_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowById = new HashMap<>();
+    private final BitSet[] byShipType = new BitSet[ShipType.values().length];
+    private final BitSet usedRows = new BitSet();
+    private final BitSet unusedRows = new BitSet();
+
+    private ShipRepository shipRepository;
+    private ShipTrigramIndex trigramIndex;
+    private boolean enabled;
+
+    private int size;
+    private long[] ids = new long[16];
+    private String[] names = new String[16];
+    private String[] planets = new String[16];
+    private long[] prodDates = new long[16];
+    private double[] speeds = new double[16];
+    private int[] crewSizes = new int[16];
+    private double[] ratings = new double[16];
+
+    public ShipColumnStore() {
+        for (int i = 0; i < byShipType.length; i++) byShipType[i] = new BitSet();
+    }
+
+    @Autowired
+    public void setShipRepository(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+
+    @Autowired
+    public void setTrigramIndex(ShipTrigramIndex trigramIndex) {
+        this.trigramIndex = trigramIndex;
+    }
+
+    @Value("${ship.engine.in-memory:false}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        load();
+    }
+
+    public void load() {
+        if (!enabled) return;
+
+        Slice<Ship> chunk = shipRepository.findAll(PageRequest.of(0, LOAD_CHUNK_SIZE, Sort.by("id")));
+        lock.writeLock().lock();
+        try {
+            clear();
+            while (true) {
+                for (Ship ship : chunk) put(ship);
+                if (!chunk.hasNext()) break;
+                chunk = shipRepository.findAll(chunk.nextPageable());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Ship> find(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize) {
+        lock.readLock().lock();
+        try {
+            TopRows top = new TopRows(order, (long) (pageNumber + 1) * pageSize);
+            match(filter, null, top);
+            return top.page((long) pageNumber * pageSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Ship> findAfter(ShipFilter filter, ShipOrder order, ShipCursor cursor, int pageSize) {
+        lock.readLock().lock();
+        try {
+            TopRows top = new TopRows(order, pageSize);
+            match(filter, cursor, top);
+            return top.page(0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ShipsPage findPage(ShipFilter filter, ShipOrder order, int pageNumber, int pageSize) {
+        lock.readLock().lock();
+        try {
+            TopRows top = new TopRows(order, (long) (pageNumber + 1) * pageSize);
+            match(filter, null, top);
+            return new ShipsPage(top.page((long) pageNumber * pageSize), top.matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(ShipFilter filter) {
+        lock.readLock().lock();
+        try {
+            TopRows top = new TopRows(ShipOrder.ID, 0);
+            match(filter, null, top);
+            return top.matched;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void shipSaved(Ship ship) {
+        if (!enabled) return;
+
+        lock.writeLock().lock();
+        try {
+            put(ship);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void shipDeleted(Long id) {
+        if (!enabled) return;
+
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Offers every row that matches {@code filter}, and comes after {@code cursor} when one is given, to {@code top}.
+     */
+    private void match(ShipFilter filter, ShipCursor cursor, TopRows top) {
+        BitSet candidates = candidates(filter);
+        LikePattern name = filter.getName() == null ? null : LikePattern.contains(filter.getName());
+        LikePattern planet = filter.getPlanet() == null ? null : LikePattern.contains(filter.getPlanet());
+
+        if (candidates == null) {
+            for (int row = 0; row < size; row++) {
+                if (matches(row, filter, name, planet) && (cursor == null || isAfter(row, cursor))) top.offer(row);
+            }
+        } else {
+            for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                if (matches(row, filter, name, planet) && (cursor == null || isAfter(row, cursor))) top.offer(row);
+            }
+        }
+    }
+
+    private BitSet candidates(ShipFilter filter) {
+        BitSet candidates = null;
+        if (filter.getShipType() != null) {
+            candidates = (BitSet) byShipType[filter.getShipType().ordinal()].clone();
+        }
+        if (filter.getUsed() != null) {
+            BitSet used = filter.getUsed() ? usedRows : unusedRows;
+            if (candidates == null) {
+                candidates = (BitSet) used.clone();
+            } else candidates.and(used);
+        }
+
+        Set<Long> ids = trigramIndex.candidates(filter);
+        if (ids != null) {
+            BitSet rows = new BitSet();
+            for (Long id : ids) {
+                Integer row = rowById.get(id);
+                if (row != null) rows.set(row);
+            }
+            if (candidates == null) {
+                candidates = rows;
+            } else candidates.and(rows);
+        }
+        return candidates;
+    }
+
+    private boolean matches(int row, ShipFilter filter, LikePattern name, LikePattern planet) {
+        if (filter.getMinSpeed() != null && !(speeds[row] >= filter.getMinSpeed())) return false;
+        if (filter.getMaxSpeed() != null && !(speeds[row] <= filter.getMaxSpeed())) return false;
+        if (filter.getMinRating() != null && !(ratings[row] >= filter.getMinRating())) return false;
+        if (filter.getMaxRating() != null && !(ratings[row] <= filter.getMaxRating())) return false;
+
+        if (filter.getMinCrewSize() != null
+                && (crewSizes[row] == NULL_CREW_SIZE || crewSizes[row] < filter.getMinCrewSize())) return false;
+        if (filter.getMaxCrewSize() != null
+                && (crewSizes[row] == NULL_CREW_SIZE || crewSizes[row] > filter.getMaxCrewSize())) return false;
+
+        if (filter.getAfter() != null
+                && (prodDates[row] == NULL_DATE || prodDates[row] < filter.getAfter())) return false;
+        if (filter.getBefore() != null
+                && (prodDates[row] == NULL_DATE || prodDates[row] > filter.getBefore())) return false;
+
+        if (name != null && !name.matches(names[row])) return false;
+        return planet == null || planet.matches(planets[row]);
+    }
+
+    private RowComparator comparator(ShipOrder order) {
+        switch (order) {
+            case SPEED:
+                return (a, b) -> compareNullsFirst(speeds[a], speeds[b]);
+            case DATE:
+                return (a, b) -> Long.compare(prodDates[a], prodDates[b]);
+            case RATING:
+                return (a, b) -> compareNullsFirst(ratings[a], ratings[b]);
+            default:
+                return (a, b) -> 0;
+        }
+    }
+
+    private boolean isAfter(int row, ShipCursor cursor) {
+        int result;
+        switch (cursor.getOrder()) {
+            case SPEED:
+                result = compareNullsFirst(speeds[row], cursor.getKey() == null ? Double.NaN : cursor.getKey().doubleValue());
+                break;
+            case DATE:
+                result = Long.compare(prodDates[row], cursor.getKey() == null ? NULL_DATE : cursor.getKey().longValue());
+                break;
+            case RATING:
+                result = compareNullsFirst(ratings[row], cursor.getKey() == null ? Double.NaN : cursor.getKey().doubleValue());
+                break;
+            default:
+                result = 0;
+        }
+        return result > 0 || result == 0 && ids[row] > cursor.getId();
+    }
+
+    private static int compareNullsFirst(double a, double b) {
+        if (Double.isNaN(a)) return Double.isNaN(b) ? 0 : -1;
+        if (Double.isNaN(b)) return 1;
+        return Double.compare(a, b);
+    }
+
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, RowComparator comparator) {
+        if (to - from < 2) return;
+        int middle = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, middle, comparator);
+        mergeSort(rows, buffer, middle, to, comparator);
+        if (comparator.compare(rows[middle - 1], rows[middle]) <= 0) return;
+
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || left < middle && comparator.compare(buffer[left], buffer[right]) <= 0) {
+                rows[i] = buffer[left++];
+            } else rows[i] = buffer[right++];
+        }
+    }
+
+    private Ship toShip(int row) {
+        Ship ship = new Ship();
+        ship.setId(ids[row]);
+        ship.setName(names[row]);
+        ship.setPlanet(planets[row]);
+        for (ShipType type : ShipType.values()) {
+            if (byShipType[type.ordinal()].get(row)) ship.setShipType(type);
+        }
+        ship.setProdDate(prodDates[row] == NULL_DATE ? null : new Date(prodDates[row]));
+        ship.setUsed(usedRows.get(row) ? Boolean.TRUE : unusedRows.get(row) ? Boolean.FALSE : null);
+        ship.setSpeed(Double.isNaN(speeds[row]) ? null : speeds[row]);
+        ship.setCrewSize(crewSizes[row] == NULL_CREW_SIZE ? null : crewSizes[row]);
+        ship.setRating(Double.isNaN(ratings[row]) ? null : ratings[row]);
+        return ship;
+    }
+
+    private void put(Ship ship) {
+        Integer existing = rowById.get(ship.getId());
+        int row;
+        if (existing == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowById.put(ship.getId(), row);
+        } else row = existing;
+
+        ids[row] = ship.getId();
+        names[row] = ship.getName();
+        planets[row] = ship.getPlanet();
+        prodDates[row] = ship.getProdDate() == null ? NULL_DATE : ship.getProdDate().getTime();
+        speeds[row] = ship.getSpeed() == null ? Double.NaN : ship.getSpeed();
+        crewSizes[row] = ship.getCrewSize() == null ? NULL_CREW_SIZE : ship.getCrewSize();
+        ratings[row] = ship.getRating() == null ? Double.NaN : ship.getRating();
+        for (ShipType type : ShipType.values()) byShipType[type.ordinal()].set(row, type == ship.getShipType());
+        usedRows.set(row, Boolean.TRUE.equals(ship.getUsed()));
+        unusedRows.set(row, Boolean.FALSE.equals(ship.getUsed()));
+    }
+
+    private void remove(Long id) {
+        Integer removed = rowById.remove(id);
+        if (removed == null) return;
+
+        int last = --size;
+        if (removed != last) {
+            moveRow(last, removed);
+            rowById.put(ids[removed], removed);
+        }
+        names[last] = null;
+        planets[last] = null;
+        for (BitSet bits : byShipType) bits.clear(last);
+        usedRows.clear(last);
+        unusedRows.clear(last);
+    }
+
+    private void moveRow(int from, int to) {
+        ids[to] = ids[from];
+        names[to] = names[from];
+        planets[to] = planets[from];
+        prodDates[to] = prodDates[from];
+        speeds[to] = speeds[from];
+        crewSizes[to] = crewSizes[from];
+        ratings[to] = ratings[from];
+        for (BitSet bits : byShipType) bits.set(to, bits.get(from));
+        usedRows.set(to, usedRows.get(from));
+        unusedRows.set(to, unusedRows.get(from));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) return;
+        int newLength = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newLength);
+        names = Arrays.copyOf(names, newLength);
+        planets = Arrays.copyOf(planets, newLength);
+        prodDates = Arrays.copyOf(prodDates, newLength);
+        speeds = Arrays.copyOf(speeds, newLength);
+        crewSizes = Arrays.copyOf(crewSizes, newLength);
+        ratings = Arrays.copyOf(ratings, newLength);
+    }
+
+    private void clear() {
+        rowById.clear();
+        for (BitSet bits : byShipType) bits.clear();
+        usedRows.clear();
+        unusedRows.clear();
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(planets, 0, size, null);
+        size = 0;
+    }
+
+    private interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Counts the offered rows and keeps the first {@code limit} of them by the order key, ties broken by id so that
+     * pages never overlap. A max-heap holds the kept rows, so a page costs O(matches * log limit) and only the
+     * kept rows are sorted.
+     */
+    private final class TopRows {
+        private final RowComparator comparator;
+        private final int[] heap;
+        private int kept;
+        private int matched;
+
+        TopRows(ShipOrder order, long limit) {
+            RowComparator byKey = comparator(order);
+            this.comparator = (a, b) -> {
+                int result = byKey.compare(a, b);
+                return result != 0 ? result : Long.compare(ids[a], ids[b]);
+            };
+            this.heap = new int[(int) Math.min(limit, size)];
+        }
+
+        void offer(int row) {
+            matched++;
+            if (kept < heap.length) {
+                heap[kept] = row;
+                siftUp(kept++);
+            } else if (kept > 0 && comparator.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(0);
+            }
+        }
+
+        List<Ship> page(long from) {
+            mergeSort(heap, new int[kept], 0, kept, comparator);
+            List<Ship> ships = new ArrayList<>((int) Math.max(0, kept - from));
+            for (int i = (int) Math.min(from, kept); i < kept; i++) ships.add(toShip(heap[i]));
+            return ships;
+        }
+
+        private void siftUp(int index) {
+            int row = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (comparator.compare(heap[parent], row) >= 0) break;
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = row;
+        }
+
+        private void siftDown(int index) {
+            int row = heap[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= kept) break;
+                if (child + 1 < kept && comparator.compare(heap[child + 1], heap[child]) > 0) child++;
+                if (comparator.compare(row, heap[child]) >= 0) break;
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = row;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.space.service.memory;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipRepository;
+import com.space.service.ShipFilter;
+import com.space.service.ShipWriteListener;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pre-aggregated ship counts by ship type and used flag, crossed with one of production year, speed
+ * (0.01 steps) or rating (0.01 steps). Answers {@code /rest/ships/count} for filters on those fields,
+ * with at most one of the year, speed and rating ranges, by summing a bounded number of counters.
+ * Any other filter shape returns {@code null} and goes to the database.
+ * <p>
+ * Rows that do not fit a dimension exactly, such as a speed with three decimals, are counted
+ * separately and turn that dimension off until they are gone. Disabled unless {@code ship.cube.enabled=true}.
+ */
+@Component
+public class ShipCountCube implements ShipWriteListener, InitializingBean {
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    private static final int MIN_YEAR = 2800;
+    private static final int SPEED_BUCKETS = 100;
+    private static final int RATING_BUCKETS = 8000;
+    private static final int TYPES = ShipType.values().length;
+    private static final int NONE = -1;
+
+    private final ConcurrentMap<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final LongAdder irregularYears = new LongAdder();
+    private final LongAdder irregularSpeeds = new LongAdder();
+    private final LongAdder irregularRatings = new LongAdder();
+    private final LongAdder irregularRows = new LongAdder();
+
+    private ShipRepository shipRepository;
+    private boolean enabled;
+    private int maxYear;
+    private long[] yearStarts;
+    private LongAdder[] byGroup;
+    private LongAdder[] byYear;
+    private LongAdder[] atYearStart;
+    private LongAdder[] bySpeed;
+    private LongAdder[] byRating;
+
+    @Autowired
+    public void setShipRepository(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+
+    @Value("${ship.cube.enabled:false}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Value("${ship.rating.current-year:3019}")
+    public void setMaxYear(int maxYear) {
+        this.maxYear = maxYear;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) return;
+
+        Calendar calendar = Calendar.getInstance();
+        yearStarts = new long[maxYear - MIN_YEAR + 2];
+        for (int i = 0; i < yearStarts.length; i++) {
+            calendar.clear();
+            calendar.set(MIN_YEAR + i, Calendar.JANUARY, 1, 0, 0, 0);
+            yearStarts[i] = calendar.getTimeInMillis();
+        }
+        load();
+    }
+
+    public synchronized void load() {
+        if (!enabled) return;
+
+        cells.clear();
+        irregularYears.reset();
+        irregularSpeeds.reset();
+        irregularRatings.reset();
+        irregularRows.reset();
+        byGroup = counters(1);
+        byYear = counters(yearStarts.length - 1);
+        atYearStart = counters(yearStarts.length - 1);
+        bySpeed = counters(SPEED_BUCKETS);
+        byRating = counters(RATING_BUCKETS);
+        shipRepository.forEach((root, query, criteriaBuilder) -> criteriaBuilder.conjunction(), Sort.by("id"),
+                LOAD_FETCH_SIZE, this::shipSaved);
+    }
+
+    /**
+     * Returns the number of ships matching {@code filter}, or {@code null} if the cube can not answer it.
+     */
+    public Integer count(ShipFilter filter) {
+        if (!enabled || irregularRows.sum() > 0) return null;
+        if (filter.getName() != null || filter.getPlanet() != null ||
+                filter.getMinCrewSize() != null || filter.getMaxCrewSize() != null) return null;
+
+        boolean years = filter.getAfter() != null || filter.getBefore() != null;
+        boolean speeds = filter.getMinSpeed() != null || filter.getMaxSpeed() != null;
+        boolean ratings = filter.getMinRating() != null || filter.getMaxRating() != null;
+        if ((years ? 1 : 0) + (speeds ? 1 : 0) + (ratings ? 1 : 0) > 1) return null;
+        if (isNaN(filter.getMinSpeed()) || isNaN(filter.getMaxSpeed()) ||
+                isNaN(filter.getMinRating()) || isNaN(filter.getMaxRating())) return null;
+
+        if (speeds) {
+            if (irregularSpeeds.sum() > 0) return null;
+            int from = filter.getMinSpeed() == null ? 0 : lowestAtLeast(filter.getMinSpeed(), SPEED_BUCKETS);
+            int to = filter.getMaxSpeed() == null ? SPEED_BUCKETS - 1 : highestAtMost(filter.getMaxSpeed(), SPEED_BUCKETS);
+            return sum(bySpeed, SPEED_BUCKETS, filter, from, to);
+        }
+        if (ratings) {
+            if (irregularRatings.sum() > 0) return null;
+            int from = filter.getMinRating() == null ? 0 : lowestAtLeast(filter.getMinRating(), RATING_BUCKETS);
+            int to = filter.getMaxRating() == null ? RATING_BUCKETS - 1 : highestAtMost(filter.getMaxRating(), RATING_BUCKETS);
+            return sum(byRating, RATING_BUCKETS, filter, from, to);
+        }
+
+        if (!years) return sum(byGroup, 1, filter, 0, 0);
+        if (irregularYears.sum() > 0) return null;
+
+        int yearCount = yearStarts.length - 1;
+        int from = 0;
+        if (filter.getAfter() != null) {
+            int index = Arrays.binarySearch(yearStarts, filter.getAfter());
+            if (index >= 0) from = index;
+            else if (filter.getAfter() <= yearStarts[0]) from = 0;
+            else if (filter.getAfter() > yearStarts[yearCount]) return 0;
+            else return null;
+        }
+        if (filter.getBefore() == null) return sum(byYear, yearCount, filter, from, yearCount - 1);
+
+        int before = Arrays.binarySearch(yearStarts, filter.getBefore());
+        if (before < 0) {
+            if (filter.getBefore() < yearStarts[0]) return 0;
+            if (filter.getBefore() >= yearStarts[yearCount]) return sum(byYear, yearCount, filter, from, yearCount - 1);
+            return null;
+        }
+        int count = sum(byYear, yearCount, filter, from, before - 1);
+        if (before < yearCount && before >= from) count += sum(atYearStart, yearCount, filter, before, before);
+        return count;
+    }
+
+    @Override
+    public void shipSaved(Ship ship) {
+        if (!enabled) return;
+        Cell cell = cell(ship);
+        cells.compute(ship.getId(), (id, old) -> {
+            if (old != null) apply(old, -1);
+            apply(cell, 1);
+            return cell;
+        });
+    }
+
+    @Override
+    public void shipDeleted(Long id) {
+        if (!enabled) return;
+        cells.computeIfPresent(id, (key, old) -> {
+            apply(old, -1);
+            return null;
+        });
+    }
+
+    private Cell cell(Ship ship) {
+        if (ship.getShipType() == null || ship.getUsed() == null) return new Cell(NONE, NONE, false, NONE, NONE);
+
+        int group = ship.getShipType().ordinal() * 2 + (ship.getUsed() ? 1 : 0);
+        int year = NONE;
+        boolean atStart = false;
+        if (ship.getProdDate() != null) {
+            long millis = ship.getProdDate().getTime();
+            int index = Arrays.binarySearch(yearStarts, millis);
+            atStart = index >= 0;
+            if (index < 0) index = -index - 2;
+            if (index >= 0 && index < yearStarts.length - 1) year = index;
+        }
+        return new Cell(group, year, atStart, bucket(ship.getSpeed(), SPEED_BUCKETS), bucket(ship.getRating(), RATING_BUCKETS));
+    }
+
+    private void apply(Cell cell, int delta) {
+        if (cell.group == NONE) {
+            irregularRows.add(delta);
+            return;
+        }
+        byGroup[cell.group].add(delta);
+        int yearCount = yearStarts.length - 1;
+        if (cell.year == NONE) irregularYears.add(delta);
+        else {
+            byYear[cell.group * yearCount + cell.year].add(delta);
+            if (cell.atYearStart) atYearStart[cell.group * yearCount + cell.year].add(delta);
+        }
+        if (cell.speed == NONE) irregularSpeeds.add(delta);
+        else bySpeed[cell.group * SPEED_BUCKETS + cell.speed].add(delta);
+        if (cell.rating == NONE) irregularRatings.add(delta);
+        else byRating[cell.group * RATING_BUCKETS + cell.rating].add(delta);
+    }
+
+    private int sum(LongAdder[] counters, int width, ShipFilter filter, int from, int to) {
+        if (from > to) return 0;
+        long count = 0;
+        for (ShipType type : ShipType.values()) {
+            if (filter.getShipType() != null && filter.getShipType() != type) continue;
+            for (int used = 0; used < 2; used++) {
+                if (filter.getUsed() != null && filter.getUsed() != (used == 1)) continue;
+                int offset = (type.ordinal() * 2 + used) * width;
+                for (int i = from; i <= to; i++) count += counters[offset + i].sum();
+            }
+        }
+        return (int) count;
+    }
+
+    /**
+     * Values are stored as exact hundredths, so bucket {@code i} holds the double nearest to {@code i / 100}.
+     */
+    private static int bucket(Double value, int buckets) {
+        if (value == null) return NONE;
+        double scaled = Math.rint(value * 100);
+        if (scaled < 0 || scaled >= buckets || scaled / 100 != value) return NONE;
+        return (int) scaled;
+    }
+
+    private static int lowestAtLeast(double bound, int buckets) {
+        if (bound <= 0) return 0;
+        if (bound * 100 >= buckets) return buckets;
+        int index = (int) Math.max(0, Math.ceil(bound * 100) - 1);
+        while (index / 100D < bound) index++;
+        return index;
+    }
+
+    private static int highestAtMost(double bound, int buckets) {
+        if (bound < 0) return NONE;
+        if (bound * 100 >= buckets) return buckets - 1;
+        int index = (int) Math.min(buckets - 1, Math.floor(bound * 100) + 1);
+        while (index >= 0 && index / 100D > bound) index--;
+        return index;
+    }
+
+    private static boolean isNaN(Double value) {
+        return value != null && value.isNaN();
+    }
+
+    private static LongAdder[] counters(int width) {
+        LongAdder[] counters = new LongAdder[TYPES * 2 * width];
+        for (int i = 0; i < counters.length; i++) counters[i] = new LongAdder();
+        return counters;
+    }
+
+    private static final class Cell {
+        private final int group;
+        private final int year;
+        private final boolean atYearStart;
+        private final int speed;
+        private final int rating;
+
+        Cell(int group, int year, boolean atYearStart, int speed, int rating) {
+            this.group = group;
+            this.year = year;
+            this.atYearStart = atYearStart;
+            this.speed = speed;
+            this.rating = rating;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.space.service.memory;
+
+import com.space.model.Ship;
+import com.space.model.ShipStats;
+import com.space.model.ShipType;
+import com.space.repository.ShipRepository;
+import com.space.service.ShipWriteListener;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fleet statistics per ship type and per planet, kept as fixed-size {@link MetricSketch}es. By default the
+ * sketches are built from the table on startup and kept current with write-through, so a snapshot costs
+ * O(ship types + planets) however many ships there are. The last written values of each ship are kept so an
+ * update or delete can take them back out. With {@code ship.stats.incremental=false} nothing is held and every
+ * snapshot streams the table once.
+ */
+@Component
+public class ShipFleetStats implements ShipWriteListener, InitializingBean {
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Row> rows = new HashMap<>();
+    private Sketches sketches = new Sketches();
+
+    private ShipRepository shipRepository;
+    private boolean enabled;
+
+    @Autowired
+    public void setShipRepository(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+
+    @Value("${ship.stats.incremental:true}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        load();
+    }
+
+    public void load() {
+        if (!enabled) return;
+
+        lock.writeLock().lock();
+        try {
+            rows.clear();
+            sketches = new Sketches();
+            shipRepository.forEach((root, query, criteriaBuilder) -> criteriaBuilder.conjunction(), Sort.by("id"),
+                    LOAD_FETCH_SIZE, this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ShipStats snapshot() {
+        if (!enabled) {
+            Sketches scanned = new Sketches();
+            shipRepository.forEach((root, query, criteriaBuilder) -> criteriaBuilder.conjunction(), Sort.by("id"),
+                    LOAD_FETCH_SIZE, ship -> scanned.add(new Row(ship)));
+            return scanned.snapshot();
+        }
+
+        lock.readLock().lock();
+        try {
+            return sketches.snapshot();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void shipSaved(Ship ship) {
+        if (!enabled) return;
+
+        lock.writeLock().lock();
+        try {
+            put(ship);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void shipDeleted(Long id) {
+        if (!enabled) return;
+
+        lock.writeLock().lock();
+        try {
+            Row old = rows.remove(id);
+            if (old != null) sketches.remove(old);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Ship ship) {
+        Row row = new Row(ship);
+        Row old = rows.put(ship.getId(), row);
+        if (old != null) sketches.remove(old);
+        sketches.add(row);
+    }
+
+    private static final class Row {
+        private final ShipType shipType;
+        private final String planet;
+        private final Double speed;
+        private final Double rating;
+        private final Integer crewSize;
+
+        Row(Ship ship) {
+            this.shipType = ship.getShipType();
+            this.planet = ship.getPlanet();
+            this.speed = ship.getSpeed();
+            this.rating = ship.getRating();
+            this.crewSize = ship.getCrewSize();
+        }
+    }
+
+    private static final class Sketches {
+        private final Group total = new Group();
+        private final Map<ShipType, Group> byShipType = new EnumMap<>(ShipType.class);
+        private final Map<String, Group> byPlanet = new HashMap<>();
+
+        void add(Row row) {
+            total.add(row);
+            if (row.shipType != null) byShipType.computeIfAbsent(row.shipType, type -> new Group()).add(row);
+            if (row.planet != null) byPlanet.computeIfAbsent(row.planet, planet -> new Group()).add(row);
+        }
+
+        void remove(Row row) {
+            total.remove(row);
+            if (row.shipType != null) remove(byShipType, row.shipType, row);
+            if (row.planet != null) remove(byPlanet, row.planet, row);
+        }
+
+        private static <K> void remove(Map<K, Group> groups, K key, Row row) {
+            Group group = groups.get(key);
+            if (group == null) return;
+            group.remove(row);
+            if (group.count == 0) groups.remove(key);
+        }
+
+        ShipStats snapshot() {
+            Map<ShipType, ShipStats.Group> types = new EnumMap<>(ShipType.class);
+            byShipType.forEach((type, group) -> types.put(type, group.snapshot()));
+            Map<String, ShipStats.Group> planets = new TreeMap<>();
+            byPlanet.forEach((planet, group) -> planets.put(planet, group.snapshot()));
+            return new ShipStats(total.snapshot(), types, planets);
+        }
+    }
+
+    private static final class Group {
+        private final MetricSketch speed = new MetricSketch(0, 1, 100);
+        private final MetricSketch rating = new MetricSketch(0, 80, 160);
+        private final MetricSketch crewSize = new MetricSketch(0, 10_000, 100);
+        private long count;
+
+        void add(Row row) {
+            count++;
+            if (row.speed != null) speed.add(row.speed);
+            if (row.rating != null) rating.add(row.rating);
+            if (row.crewSize != null) crewSize.add(row.crewSize);
+        }
+
+        void remove(Row row) {
+            count--;
+            if (row.speed != null) speed.remove(row.speed);
+            if (row.rating != null) rating.remove(row.rating);
+            if (row.crewSize != null) crewSize.remove(row.crewSize);
+        }
+
+        ShipStats.Group snapshot() {
+            return new ShipStats.Group(count, speed.snapshot(), rating.snapshot(), crewSize.snapshot());
+        }
+    }
+}
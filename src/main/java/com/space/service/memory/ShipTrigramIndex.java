@@ -0,0 +1,284 @@
+package com.space.service.memory;
+
+import com.space.model.Ship;
+import com.space.repository.ShipRepository;
+import com.space.service.ShipFilter;
+import com.space.service.ShipWriteListener;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over {@code Ship.name} and {@code Ship.planet} that narrows the rows a {@code LIKE '%x%'}
+ * filter has to look at. It only ever returns a superset of the matching ids; the exact substring check
+ * stays with the query.
+ * <p>
+ * Characters are folded to lower-case ASCII so the candidates stay a superset under case- and
+ * accent-insensitive collations. Values holding characters that cannot be folded are always candidates,
+ * and patterns with LIKE wildcards or such characters are not narrowed at all.
+ * Disabled unless {@code ship.index.trigram=true}.
+ */
+@Component
+public class ShipTrigramIndex implements ShipWriteListener, InitializingBean {
+    private static final int GRAM = 3;
+    private static final int LOAD_CHUNK_SIZE = 10_000;
+    private static final char UNFOLDABLE = 0;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> docById = new HashMap<>();
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+    private final Field names = new Field();
+    private final Field planets = new Field();
+
+    private ShipRepository shipRepository;
+    private boolean enabled;
+    private int maxCandidates;
+
+    private long[] ids = new long[16];
+    private int docCount;
+
+    @Autowired
+    public void setShipRepository(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+
+    @Value("${ship.index.trigram:false}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Value("${ship.index.trigram.max-candidates:1000}")
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        load();
+    }
+
+    public void load() {
+        if (!enabled) return;
+
+        Slice<Ship> chunk = shipRepository.findAll(PageRequest.of(0, LOAD_CHUNK_SIZE, Sort.by("id")));
+        lock.writeLock().lock();
+        try {
+            docById.clear();
+            freeDocs.clear();
+            names.clear();
+            planets.clear();
+            docCount = 0;
+            while (true) {
+                for (Ship ship : chunk) put(ship);
+                if (!chunk.hasNext()) break;
+                chunk = shipRepository.findAll(chunk.nextPageable());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids that may match the name and planet filters, or {@code null} if the index cannot narrow
+     * them down to at most {@code ship.index.trigram.max-candidates} rows
+     */
+    public Set<Long> candidates(ShipFilter filter) {
+        if (!enabled || filter.getName() == null && filter.getPlanet() == null) return null;
+
+        lock.readLock().lock();
+        try {
+            BitSet docs = null;
+            if (filter.getName() != null) docs = intersect(docs, names.candidates(filter.getName()));
+            if (filter.getPlanet() != null) docs = intersect(docs, planets.candidates(filter.getPlanet()));
+            if (docs == null || docs.cardinality() > maxCandidates) return null;
+
+            Set<Long> result = new HashSet<>();
+            for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) result.add(ids[doc]);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void shipSaved(Ship ship) {
+        if (!enabled) return;
+
+        lock.writeLock().lock();
+        try {
+            put(ship);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void shipDeleted(Long id) {
+        if (!enabled) return;
+
+        lock.writeLock().lock();
+        try {
+            Integer doc = docById.remove(id);
+            if (doc == null) return;
+            names.remove(doc);
+            planets.remove(doc);
+            freeDocs.push(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static BitSet intersect(BitSet docs, BitSet other) {
+        if (other == null) return docs;
+        if (docs == null) return other;
+        docs.and(other);
+        return docs;
+    }
+
+    private void put(Ship ship) {
+        Integer doc = docById.get(ship.getId());
+        if (doc == null) {
+            doc = freeDocs.isEmpty() ? docCount++ : freeDocs.pop();
+            if (doc >= ids.length) ids = Arrays.copyOf(ids, ids.length * 2);
+            ids[doc] = ship.getId();
+            docById.put(ship.getId(), doc);
+        } else {
+            names.remove(doc);
+            planets.remove(doc);
+        }
+        names.add(doc, ship.getName());
+        planets.add(doc, ship.getPlanet());
+    }
+
+    /**
+     * @return the folded form of {@code value}, one char per input char, {@link #UNFOLDABLE} where
+     * a character has no lower-case ASCII equivalent
+     */
+    private static char[] fold(String value) {
+        char[] folded = new char[value.length()];
+        for (int i = 0; i < folded.length; i++) {
+            char c = Character.toLowerCase(value.charAt(i));
+            if (c >= 128) {
+                String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+                c = decomposed.charAt(0) < 128 ? Character.toLowerCase(decomposed.charAt(0)) : UNFOLDABLE;
+            }
+            folded[i] = c;
+        }
+        return folded;
+    }
+
+    private static long gram(char[] chars, int from) {
+        return (long) chars[from] << 32 | (long) chars[from + 1] << 16 | chars[from + 2];
+    }
+
+    private static boolean hasUnfoldable(char[] chars) {
+        for (char c : chars) {
+            if (c == UNFOLDABLE) return true;
+        }
+        return false;
+    }
+
+    private static final class Field {
+        private final Map<Long, BitSet> grams = new HashMap<>();
+        private final Map<Integer, char[]> values = new HashMap<>();
+        private final BitSet unfoldable = new BitSet();
+        private final BitSet shorter = new BitSet();
+
+        void add(int doc, String value) {
+            if (value == null) return;
+
+            char[] folded = fold(value);
+            values.put(doc, folded);
+            if (hasUnfoldable(folded)) unfoldable.set(doc);
+            if (folded.length < GRAM) shorter.set(doc);
+            for (int i = 0; i + GRAM <= folded.length; i++) {
+                grams.computeIfAbsent(gram(folded, i), key -> new BitSet()).set(doc);
+            }
+        }
+
+        void remove(int doc) {
+            char[] folded = values.remove(doc);
+            if (folded == null) return;
+
+            unfoldable.clear(doc);
+            shorter.clear(doc);
+            for (int i = 0; i + GRAM <= folded.length; i++) {
+                long key = gram(folded, i);
+                BitSet docs = grams.get(key);
+                if (docs == null) continue;
+                docs.clear(doc);
+                if (docs.isEmpty()) grams.remove(key);
+            }
+        }
+
+        /**
+         * @return a fresh bitset of docs that may contain {@code pattern}, or {@code null} to scan everything
+         */
+        BitSet candidates(String pattern) {
+            if (pattern.isEmpty() || pattern.indexOf('%') >= 0 || pattern.indexOf('_') >= 0
+                    || pattern.indexOf('\\') >= 0) return null;
+
+            char[] folded = fold(pattern);
+            if (hasUnfoldable(folded)) return null;
+
+            BitSet docs = folded.length < GRAM ? containingShort(folded) : containingAll(folded);
+            docs.or(unfoldable);
+            return docs;
+        }
+
+        private BitSet containingAll(char[] folded) {
+            BitSet docs = null;
+            for (int i = 0; i + GRAM <= folded.length; i++) {
+                BitSet withGram = grams.get(gram(folded, i));
+                if (withGram == null) return new BitSet();
+                if (docs == null) {
+                    docs = (BitSet) withGram.clone();
+                } else docs.and(withGram);
+            }
+            return docs;
+        }
+
+        /**
+         * Patterns shorter than a trigram: any value containing them either has a trigram containing
+         * them or is itself shorter than a trigram.
+         */
+        private BitSet containingShort(char[] folded) {
+            BitSet docs = (BitSet) shorter.clone();
+            for (Map.Entry<Long, BitSet> entry : grams.entrySet()) {
+                if (gramContains(entry.getKey(), folded)) docs.or(entry.getValue());
+            }
+            return docs;
+        }
+
+        private static boolean gramContains(long gram, char[] folded) {
+            char[] chars = {(char) (gram >>> 32), (char) (gram >>> 16), (char) gram};
+            outer:
+            for (int i = 0; i + folded.length <= GRAM; i++) {
+                for (int j = 0; j < folded.length; j++) {
+                    if (chars[i + j] != folded[j]) continue outer;
+                }
+                return true;
+            }
+            return false;
+        }
+
+        void clear() {
+            grams.clear();
+            values.clear();
+            unfoldable.clear();
+            shorter.clear();
+        }
+    }
+}
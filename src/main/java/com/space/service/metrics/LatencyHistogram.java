@@ -0,0 +1,61 @@
+package com.space.service.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed buckets from 100 microseconds to 10 seconds. Recording adds to two
+ * striped counters, so concurrent callers do not contend on a shared cache line.
+ */
+public class LatencyHistogram {
+    private static final long[] BOUNDS_NANOS = {
+            100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L,
+            10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[bucket]) bucket++;
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Upper bounds of the finite buckets, in nanoseconds; the last count of {@link #getCumulativeCounts()}
+     * is the overflow bucket.
+     */
+    public static long[] getBoundsNanos() {
+        return BOUNDS_NANOS.clone();
+    }
+
+    /**
+     * Number of recordings at or below each bound, with the total last.
+     */
+    public long[] getCumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            counts[i] = total;
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (LongAdder bucket : buckets) total += bucket.sum();
+        return total;
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+}
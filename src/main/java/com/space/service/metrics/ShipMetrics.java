@@ -0,0 +1,118 @@
+package com.space.service.metrics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counters per endpoint and per {@link com.space.service.ShipService} method,
+ * plus access to Hibernate's statistics. Endpoints are recorded by {@code MetricsInterceptor}, service
+ * methods by {@link ShipServiceTiming}. Enabled unless {@code ship.metrics.enabled=false}; Hibernate's statistics,
+ * which cost more than the histograms, only with {@code ship.metrics.hibernate-statistics=true} as well.
+ */
+@Component
+public class ShipMetrics implements InitializingBean {
+    private final ConcurrentMap<String, LatencyHistogram> endpoints = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> endpointErrors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> serviceCalls = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> serviceFailures = new ConcurrentHashMap<>();
+
+    private boolean enabled;
+    private boolean hibernateStatistics;
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+
+    @Value("${ship.metrics.enabled:true}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Value("${ship.metrics.hibernate-statistics:false}")
+    public void setHibernateStatistics(boolean hibernateStatistics) {
+        this.hibernateStatistics = hibernateStatistics;
+    }
+
+    @Autowired(required = false)
+    public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled || !hibernateStatistics || entityManagerFactory == null) return;
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LatencyHistogram endpoint(String endpoint) {
+        return histogram(endpoints, endpoint);
+    }
+
+    public void endpointError(String endpoint, int status) {
+        increment(endpointErrors, endpoint, Integer.toString(status));
+    }
+
+    public LatencyHistogram serviceCall(String method) {
+        return histogram(serviceCalls, method);
+    }
+
+    public void serviceFailure(String method, Throwable failure) {
+        increment(serviceFailures, method, failure.getClass().getSimpleName());
+    }
+
+    public Map<String, LatencyHistogram> getEndpoints() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    /**
+     * Error responses by endpoint and status.
+     */
+    public Map<String, ConcurrentMap<String, LongAdder>> getEndpointErrors() {
+        return Collections.unmodifiableMap(endpointErrors);
+    }
+
+    public Map<String, LatencyHistogram> getServiceCalls() {
+        return Collections.unmodifiableMap(serviceCalls);
+    }
+
+    /**
+     * Thrown exceptions by service method and exception class.
+     */
+    public Map<String, ConcurrentMap<String, LongAdder>> getServiceFailures() {
+        return Collections.unmodifiableMap(serviceFailures);
+    }
+
+    /**
+     * Hibernate's statistics, or {@code null} if they are not collected.
+     */
+    public Statistics getHibernateStatistics() {
+        return statistics;
+    }
+
+    private static LatencyHistogram histogram(ConcurrentMap<String, LatencyHistogram> histograms, String name) {
+        // get first: computeIfAbsent locks the bin even when the histogram exists.
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    private static void increment(ConcurrentMap<String, ConcurrentMap<String, LongAdder>> counters,
+                                  String name, String label) {
+        counters.computeIfAbsent(name, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(label, k -> new LongAdder())
+                .increment();
+    }
+}
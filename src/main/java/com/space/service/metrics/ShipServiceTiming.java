@@ -0,0 +1,71 @@
+package com.space.service.metrics;
+
+import com.space.service.ShipService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps the {@link ShipService} bean in a proxy that records every call's latency and failures in
+ * {@link ShipMetrics}, keyed by method name.
+ */
+@Component
+public class ShipServiceTiming implements BeanPostProcessor {
+    private ObjectProvider<ShipMetrics> metrics;
+
+    @Autowired
+    public void setMetrics(ObjectProvider<ShipMetrics> metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof ShipService)) return bean;
+
+        // Resolved here rather than injected, so the metrics bean is created with all post-processors in place.
+        ShipMetrics shipMetrics = metrics.getIfAvailable();
+        if (shipMetrics == null || !shipMetrics.isEnabled()) return bean;
+
+        ProxyFactory proxy = new ProxyFactory(bean);
+        proxy.addInterface(ShipService.class);
+        proxy.addAdvice(new Timing(shipMetrics));
+        return proxy.getProxy();
+    }
+
+    private static final class Timing implements MethodInterceptor {
+        private final ShipMetrics metrics;
+        private final Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+        Timing(ShipMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            LatencyHistogram histogram = histograms.get(method);
+            if (histogram == null) {
+                histogram = metrics.serviceCall(method.getName());
+                histograms.put(method, histogram);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                metrics.serviceFailure(method.getName(), e);
+                throw e;
+            } finally {
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.space.service.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Installed through {@code hibernate.stats.factory}. Hibernate keeps query rows and times only per query string,
+ * in a bounded map that evicts; {@link QueryTotals} adds running totals that never go down.
+ */
+public class ShipStatisticsFactory implements StatisticsFactory {
+    public static final String PROPERTY = "hibernate.stats.factory";
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new QueryTotals(sessionFactory);
+    }
+
+    public static class QueryTotals extends StatisticsImpl {
+        private static final long serialVersionUID = 1L;
+
+        // LongAdder is Serializable and writes out its sum, so the totals survive like the inherited counters
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder millis = new LongAdder();
+
+        QueryTotals(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void queryExecuted(String hql, int rows, long time) {
+            super.queryExecuted(hql, rows, time);
+            this.rows.add(rows);
+            this.millis.add(time);
+        }
+
+        public long getQueryRows() {
+            return rows.sum();
+        }
+
+        public long getQueryMillis() {
+            return millis.sum();
+        }
+    }
+}
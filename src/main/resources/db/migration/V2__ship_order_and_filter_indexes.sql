@@ -0,0 +1,12 @@
+-- Sort orders of ShipOrder, with id as the tie-breaker used by the keyset pages.
+CREATE INDEX ship_speed_idx ON ship (speed, id);
+CREATE INDEX ship_prod_date_idx ON ship (prodDate, id);
+CREATE INDEX ship_rating_idx ON ship (rating, id);
+
+-- Range filter without a sort order of its own.
+CREATE INDEX ship_crew_size_idx ON ship (crewSize);
+
+-- Categorical filters with one range; they cover the counts on those columns.
+CREATE INDEX ship_type_used_date_idx ON ship (shipType, isUsed, prodDate);
+CREATE INDEX ship_type_used_speed_idx ON ship (shipType, isUsed, speed);
+CREATE INDEX ship_type_used_rating_idx ON ship (shipType, isUsed, rating);
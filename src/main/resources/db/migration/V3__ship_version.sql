@@ -0,0 +1,2 @@
+-- Optimistic locking version of Ship; existing rows start at 0.
+ALTER TABLE ship ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
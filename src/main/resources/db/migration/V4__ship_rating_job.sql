@@ -0,0 +1,10 @@
+-- Checkpoint of the rating job.
+CREATE TABLE IF NOT EXISTS ship_rating_job
+(
+    name           VARCHAR(50) NOT NULL,
+    reference_year INT         NOT NULL,
+    last_id        BIGINT      NOT NULL,
+    updated        BIGINT      NOT NULL,
+    finished       BOOLEAN     NOT NULL,
+    PRIMARY KEY (name)
+);
@@ -0,0 +1,103 @@
+package com.space.config;
+
+import com.space.controller.utils.TestDataSourceConfig;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+public class ConnectionPoolTest {
+
+    private DataSource dataSource;
+    private PoolMetrics poolMetrics;
+
+    //test1
+    @Test
+    public void poolIsWarmedUpAndCountsAcquisitions() {
+        PoolMetrics.Pool pool = poolMetrics.getPool("test");
+        long acquisitions = pool.getAcquisitions();
+
+        int ships = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM ship", Integer.class);
+
+        assertTrue("Пул должен работать поверх встроенной H2.", ships == 40);
+        assertTrue("После прогрева пул должен держать min-idle соединений.", pool.getTotal() >= 5);
+        assertTrue("Пул должен учитывать выдачу соединений.", pool.getAcquisitions() > acquisitions);
+        assertTrue("Соединения должны возвращаться в пул.", pool.getActive() == 0);
+    }
+
+    //test2
+    @Test
+    public void exhaustedPoolTimesOutAndRecordsIt() throws SQLException {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("db.url", "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+                .withProperty("db.pool.name", "exhausted")
+                .withProperty("db.pool.min-idle", "1")
+                .withProperty("db.pool.max-size", "1")
+                .withProperty("db.pool.connection-timeout-ms", "250");
+        PoolMetrics metrics = new PoolMetrics();
+
+        try (HikariDataSource pool = DataSourcePools.create(environment, "db", metrics);
+             Connection ignored = pool.getConnection()) {
+            try {
+                pool.getConnection().close();
+                assertTrue("Из исчерпанного пула нельзя получить соединение.", false);
+            } catch (SQLException expected) {
+                PoolMetrics.Pool stats = metrics.getPool("exhausted");
+                assertTrue("Пул должен учитывать таймауты ожидания соединения.", stats.getTimeouts() == 1);
+                assertTrue("Пул должен учитывать время ожидания соединения.", stats.getMaxWaitNanos() > 0);
+            }
+        }
+    }
+
+    //test3
+    @Test
+    public void invalidConnectionClosesPool() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        config.setPoolName("invalid");
+        HikariDataSource pool = new HikariDataSource(config) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class},
+                        (proxy, method, args) -> method.getName().equals("isValid") ? false : method.invoke(connection, args));
+            }
+        };
+
+        try {
+            DataSourcePools.warmUp(pool, 2);
+            assertTrue("Прогрев с невалидным соединением должен завершаться ошибкой.", false);
+        } catch (IllegalStateException expected) {
+            assertTrue("Пул с невалидным соединением должен закрываться.", pool.isClosed());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Autowired
+    public void setPoolMetrics(PoolMetrics poolMetrics) {
+        this.poolMetrics = poolMetrics;
+    }
+}
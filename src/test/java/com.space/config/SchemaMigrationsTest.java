@@ -0,0 +1,106 @@
+package com.space.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+
+public class SchemaMigrationsTest {
+    private static final String[] SHIP_TYPES = {"TRANSPORT", "MILITARY", "MERCHANT"};
+
+    private MockEnvironment environment;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setup() {
+        environment = new MockEnvironment()
+                .withProperty("db.url", "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+                .withProperty("db.pool.name", "migrations")
+                .withProperty("db.pool.min-idle", "1");
+        dataSource = DataSourcePools.create(environment, "db", null);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @After
+    public void close() {
+        dataSource.close();
+    }
+
+    //test1
+    @Test
+    public void mainQueryShapesUseIndexesTest() {
+        Flyway flyway = SchemaMigrations.migrate(environment, "db", dataSource);
+        insertShips(5000);
+
+        assertTrue("Должны примениться все миграции.", "4".equals(flyway.info().current().getVersion().getVersion()));
+        assertIndexSorted("SELECT * FROM ship ORDER BY speed LIMIT 3 OFFSET 3", "SHIP_SPEED_IDX");
+        assertIndexSorted("SELECT * FROM ship ORDER BY prodDate LIMIT 3", "SHIP_PROD_DATE_IDX");
+        assertIndexSorted("SELECT * FROM ship WHERE rating > 40 OR (rating = 40 AND id > 7) ORDER BY rating, id LIMIT 3",
+                "SHIP_RATING_IDX");
+        assertIndex("SELECT * FROM ship WHERE crewSize >= 100 AND crewSize <= 200", "SHIP_CREW_SIZE_IDX");
+        assertIndex("SELECT COUNT(*) FROM ship WHERE shipType = 'MILITARY' AND isUsed = TRUE " +
+                "AND prodDate >= DATE '2990-01-01'", "SHIP_TYPE_USED_DATE_IDX");
+        assertIndex("SELECT COUNT(*) FROM ship WHERE shipType = 'MERCHANT' AND isUsed = FALSE " +
+                "AND speed >= 0.3 AND speed <= 0.6", "SHIP_TYPE_USED_SPEED_IDX");
+        assertIndex("SELECT COUNT(*) FROM ship WHERE shipType = 'TRANSPORT' AND isUsed = TRUE " +
+                "AND rating >= 1.5", "SHIP_TYPE_USED_RATING_IDX");
+    }
+
+    //test2
+    @Test
+    public void schemaFromInitScriptIsBaselinedTest() {
+        jdbcTemplate.execute("CREATE TABLE ship (id BIGINT NOT NULL AUTO_INCREMENT, name VARCHAR(50), " +
+                "planet VARCHAR(50), shipType VARCHAR(9), prodDate DATE, isUsed BIT(1), speed DOUBLE, " +
+                "crewSize INT(4), rating DOUBLE, PRIMARY KEY (id))");
+        jdbcTemplate.update("INSERT INTO ship (name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) " +
+                "VALUES ('Orion III', 'Mars', 'MERCHANT', DATE '2995-01-01', TRUE, 0.82, 617, 1.31)");
+
+        Flyway flyway = SchemaMigrations.migrate(environment, "db", dataSource);
+        Integer indexes = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE TABLE_NAME = 'SHIP' AND INDEX_NAME LIKE 'SHIP_%_IDX'", Integer.class);
+        Long version = jdbcTemplate.queryForObject("SELECT version FROM ship WHERE name = 'Orion III'", Long.class);
+        Integer jobTables = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_NAME = 'SHIP_RATING_JOB'", Integer.class);
+
+        assertTrue("Существующая схема должна получить базовую версию.", flyway.info().applied().length == 4);
+        assertTrue("Индексы должны добавиться к существующей таблице.", indexes == 7);
+        assertTrue("Существующие корабли должны получить версию 0.", version == 0);
+        assertTrue("Таблица задачи пересчета рейтинга должна создаться.", jobTables == 1);
+    }
+
+    private void insertShips(int count) {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Ship " + i, "Planet " + random.nextInt(20), SHIP_TYPES[random.nextInt(3)],
+                    Date.valueOf((2800 + random.nextInt(220)) + "-01-01"), random.nextBoolean(),
+                    (1 + random.nextInt(99)) / 100D, 1 + random.nextInt(9999), random.nextInt(8000) / 100D});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO ship (name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void assertIndex(String query, String index) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+        assertTrue("Запрос должен использовать индекс " + index + ":\n" + plan, plan.contains("PUBLIC." + index));
+    }
+
+    private void assertIndexSorted(String query, String index) {
+        assertIndex(query, index);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+        assertTrue("Сортировка должна идти по индексу " + index + ":\n" + plan, plan.contains("index sorted"));
+    }
+}
@@ -0,0 +1,156 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = {
+        "ship.async.enabled=true",
+        "ship.async.threads=1",
+        "ship.async.queue-capacity=1",
+        "ship.async.timeout-ms=500"})
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class AsyncControllerTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipRequestExecutor requestExecutor;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void requestsRunOnExecutorTest() throws Exception {
+        long completed = requestExecutor.getCompletedCount();
+
+        MvcResult result = perform(get("/rest/ships/1"));
+        assertTrue("Запрос должен выполниться успешно.", result.getResponse().getStatus() == 200);
+        assertTrue("Должен вернуться корабль с id 1.", mapper.readValue(result.getResponse().getContentAsString(),
+                ShipInfoTest.class).id == 1);
+
+        result = perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON));
+        assertTrue("Корабль должен создаться.", result.getResponse().getStatus() == 200);
+        assertTrue("Некорректный id должен давать 400.", perform(get("/rest/ships/0")).getResponse().getStatus() == 400);
+
+        waitFor(() -> requestExecutor.getCompletedCount() >= completed + 3);
+    }
+
+    //test2
+    @Test
+    public void fullQueueIsRejectedTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        long rejected = requestExecutor.getRejectedCount();
+        try {
+            block(release);
+            CompletableFuture<Boolean> queued = requestExecutor.submit(() -> await(release));
+            assertTrue("Задача должна ждать в очереди.", requestExecutor.getQueueDepth() == 1);
+
+            mockMvc.perform(get("/rest/ships/1")).andExpect(status().isServiceUnavailable());
+            assertTrue("Отказ должен учитываться.", requestExecutor.getRejectedCount() == rejected + 1);
+
+            release.countDown();
+            assertTrue("Задача из очереди должна выполниться.", queued.get());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    //test3
+    @Test
+    public void expiredRequestIsSkippedTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        long expired = requestExecutor.getExpiredCount();
+        try {
+            block(release);
+            MvcResult started = mockMvc.perform(get("/rest/ships/1"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            Thread.sleep(requestExecutor.getTimeoutMillis() + 100);
+            release.countDown();
+
+            mockMvc.perform(asyncDispatch(started)).andExpect(status().isServiceUnavailable());
+            assertTrue("Просроченный запрос должен учитываться.", requestExecutor.getExpiredCount() == expired + 1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * A call that finished before the handler saw its future is answered without an async dispatch.
+     */
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)).andReturn() : result;
+    }
+
+    private void block(CountDownLatch release) throws InterruptedException {
+        requestExecutor.submit(() -> await(release));
+        waitFor(() -> requestExecutor.getActiveCount() == 1);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            latch.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertTrue("Условие не выполнилось вовремя.", condition.getAsBoolean());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setRequestExecutor(ShipRequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
+}
@@ -0,0 +1,110 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class BinaryFormatTest {
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private ObjectMapper json = new ObjectMapper();
+    private ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private ObjectMapper smile = new ObjectMapper(new SmileFactory());
+    private TestsHelper testsHelper = new TestsHelper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void listInBinaryFormatsTest() throws Exception {
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 10, testsHelper.getAllShips());
+
+        MockHttpServletResponse response = perform("/rest/ships?pageSize=10", CBOR);
+        assertTrue("Ответ должен быть в CBOR.", CBOR.isCompatibleWith(MediaType.valueOf(response.getContentType())));
+        assertTrue("Список в CBOR должен совпадать с ожидаемым.", expected.equals(cbor.readValue(
+                response.getContentAsByteArray(), new TypeReference<List<ShipInfoTest>>() {
+                })));
+
+        response = perform("/rest/ships?pageSize=10", SMILE);
+        assertTrue("Ответ должен быть в Smile.", SMILE.isCompatibleWith(MediaType.valueOf(response.getContentType())));
+        assertTrue("Список в Smile должен совпадать с ожидаемым.", expected.equals(smile.readValue(
+                response.getContentAsByteArray(), new TypeReference<List<ShipInfoTest>>() {
+                })));
+
+        response = perform("/rest/ships?pageSize=10", null);
+        assertTrue("По умолчанию ответ должен быть в JSON.",
+                MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.valueOf(response.getContentType())));
+        int binarySize = perform("/rest/ships?pageSize=10", CBOR).getContentAsByteArray().length;
+        assertTrue("CBOR должен быть компактнее JSON.", binarySize < response.getContentAsByteArray().length);
+    }
+
+    //test2
+    @Test
+    public void binaryRequestBodiesTest() throws Exception {
+        byte[] created = mockMvc.perform(post("/rest/ships/")
+                .contentType(SMILE)
+                .accept(SMILE)
+                .content(smile.writeValueAsBytes(json.readTree(TestsHelper.NORMAL_JSON))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        ShipInfoTest ship = smile.readValue(created, ShipInfoTest.class);
+        assertTrue("Корабль должен создаться из Smile.", ship.id != null && ship.name.equals("123456789"));
+
+        byte[] updated = mockMvc.perform(post("/rest/ships/" + ship.id)
+                .contentType(CBOR)
+                .accept(CBOR)
+                .content(cbor.writeValueAsBytes(json.readTree("{\"name\":\"Binary\"}"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertTrue("Корабль должен измениться из CBOR.", cbor.readValue(updated, ShipInfoTest.class).name.equals("Binary"));
+    }
+
+    private MockHttpServletResponse perform(String url, MediaType accept) throws Exception {
+        return mockMvc.perform(accept == null ? get(url) : get(url).accept(accept))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
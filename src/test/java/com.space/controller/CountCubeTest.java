@@ -0,0 +1,180 @@
+package com.space.controller;
+
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import com.space.service.ShipFilter;
+import com.space.service.memory.ShipCountCube;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.cube.enabled=true")
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class CountCubeTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipCountCube countCube;
+    private JdbcTemplate jdbcTemplate;
+
+    private TestsHelper testsHelper = new TestsHelper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        countCube.load();
+    }
+
+    //test1
+    @Test
+    public void countByTypeAndUsedTest() throws Exception {
+        List<ShipInfoTest> ships = testsHelper.getAllShips();
+        int expected = testsHelper.getShipInfosByIsUsed(true,
+                testsHelper.getShipInfosByShipType(ShipType.TRANSPORT, ships)).size();
+
+        assertTrue("Куб должен отвечать на фильтр по типу и использованию.",
+                countCube.count(filter(ShipType.TRANSPORT, null, null, true, null, null, null, null)) != null);
+        assertTrue("Количество по типу и использованию должно совпадать.",
+                count("?shipType=TRANSPORT&isUsed=true") == expected);
+    }
+
+    //test2
+    @Test
+    public void countByYearRangeTest() throws Exception {
+        long after = startOfYear(2990);
+        long before = startOfYear(3010);
+        Integer expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ship WHERE shipType = 'MILITARY' " +
+                "AND prodDate >= ? AND prodDate <= ?", Integer.class, new Timestamp(after), new Timestamp(before));
+
+        assertTrue("Куб должен отвечать на диапазон годов.",
+                countCube.count(filter(ShipType.MILITARY, after, before, null, null, null, null, null)) != null);
+        assertTrue("Количество по диапазону годов должно совпадать.",
+                count("?shipType=MILITARY&after=" + after + "&before=" + before) == expected);
+        assertTrue("Корабли, выпущенные ровно в начале года before, должны учитываться.",
+                count("?shipType=MILITARY&after=" + before + "&before=" + before) ==
+                        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ship WHERE shipType = 'MILITARY' " +
+                                "AND prodDate = ?", Integer.class, new Timestamp(before)));
+    }
+
+    //test3
+    @Test
+    public void countBySpeedAndRatingRangeTest() throws Exception {
+        List<ShipInfoTest> ships = testsHelper.getAllShips();
+        int bySpeed = testsHelper.getShipInfosByMaxSpeed(0.75,
+                testsHelper.getShipInfosByMinSpeed(0.25, testsHelper.getShipInfosByIsUsed(false, ships))).size();
+        int byRating = testsHelper.getShipInfosByMaxRating(2.5,
+                testsHelper.getShipInfosByMinRating(0.555, ships)).size();
+
+        assertTrue("Куб должен отвечать на диапазон скорости.",
+                countCube.count(filter(null, null, null, false, 0.25, 0.75, null, null)) != null);
+        assertTrue("Количество по диапазону скорости должно совпадать.",
+                count("?isUsed=false&minSpeed=0.25&maxSpeed=0.75") == bySpeed);
+        assertTrue("Количество по диапазону рейтинга должно совпадать.",
+                count("?minRating=0.555&maxRating=2.5") == byRating);
+    }
+
+    //test4
+    @Test
+    public void countFollowsWritesTest() throws Exception {
+        int before = count("?shipType=MILITARY&isUsed=false");
+
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+        assertTrue("Созданный корабль должен учитываться.", count("?shipType=MILITARY&isUsed=false") == before + 1);
+
+        mockMvc.perform(post("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"shipType\":\"MILITARY\",\"isUsed\":false}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/ships/1")).andExpect(status().isOk());
+        assertTrue("Измененный и удаленный корабль не должен учитываться.",
+                count("?shipType=MILITARY&isUsed=false") == before + 1);
+        assertTrue("Общее количество должно уменьшиться после удаления.", count("") == 40);
+    }
+
+    //test5
+    @Test
+    public void countWrittenThroughNonMidnightDateTest() throws Exception {
+        long year = startOfYear(3005);
+        String url = "?shipType=MILITARY&after=" + year + "&before=" + year;
+        int before = count(url);
+
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON.replace("32998274577071", String.valueOf(year + 12 * 3600 * 1000L))))
+                .andExpect(status().isOk());
+        Integer expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ship WHERE shipType = 'MILITARY' " +
+                "AND prodDate >= ? AND prodDate <= ?", Integer.class, new Timestamp(year), new Timestamp(year));
+
+        assertTrue("Корабль, выпущенный днем 1 января года before, должен учитываться.", count(url) == before + 1);
+        assertTrue("Количество должно совпадать с SQL.", count(url) == expected);
+        countCube.load();
+        assertTrue("Количество не должно меняться после перезагрузки куба.", count(url) == expected);
+    }
+
+    private static ShipFilter filter(ShipType shipType, Long after, Long before, Boolean isUsed,
+                                     Double minSpeed, Double maxSpeed, Double minRating, Double maxRating) {
+        return new ShipFilter(null, null, shipType, after, before, isUsed, minSpeed, maxSpeed,
+                null, null, minRating, maxRating);
+    }
+
+    private static long startOfYear(int year) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, Calendar.JANUARY, 1, 0, 0, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    private int count(String query) throws Exception {
+        return Integer.parseInt(mockMvc.perform(get("/rest/ships/count" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Autowired
+    public void setCountCube(ShipCountCube countCube) {
+        this.countCube = countCube;
+    }
+}
@@ -23,6 +23,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -154,6 +155,29 @@ public class CreateShipTest {
         assertTrue("Возвращается не правильный результат при запросе создания корабля с параметром isUsed.", actual.equals(expected));
     }
 
+    //test10
+    @Test
+    public void createShipWithIdTest() throws Exception {
+        expected.isUsed = false;
+        expected.rating = 12.8;
+
+        ResultActions resultActions = mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(String.format(TestsHelper.NORMAL_JSON_WITH_ID, 5)))
+                .andExpect(status().isOk());
+
+        String contentAsString = resultActions.andReturn().getResponse().getContentAsString();
+        ShipInfoTest actual = mapper.readValue(contentAsString, ShipInfoTest.class);
+        assertTrue("Id из тела запроса должен игнорироваться при создании корабля.", actual.equals(expected));
+
+        String existing = mockMvc.perform(get("/rest/ships/5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue("Существующий корабль не должен изменяться при создании.",
+                mapper.readValue(existing, ShipInfoTest.class).equals(new TestsHelper().getShipInfosById(5)));
+    }
+
     @Autowired
     public void setContext(WebApplicationContext context) {
         this.context = context;
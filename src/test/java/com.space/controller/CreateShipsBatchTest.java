@@ -0,0 +1,138 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class CreateShipsBatchTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipRepository shipRepository;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void createShipsEmptyBodyTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test2
+    @Test
+    public void createShipsWithInvalidItemTest() throws Exception {
+        String body = "[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.EMPTY_NAME_JSON + "," +
+                TestsHelper.IS_USED_TRUE_JSON + "," + TestsHelper.NORMAL_JSON + "]";
+
+        String response = mockMvc.perform(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode result = mapper.readTree(response);
+        JsonNode items = result.get("items");
+
+        assertTrue("Должно быть создано 3 корабля.", result.get("created").asInt() == 3);
+        assertTrue("Один корабль должен быть отклонен.", result.get("failed").asInt() == 1);
+        assertTrue("Статусы должны соответствовать порядку кораблей в запросе.",
+                "CREATED".equals(items.get(0).get("status").asText())
+                        && "INVALID".equals(items.get(1).get("status").asText())
+                        && "CREATED".equals(items.get(2).get("status").asText())
+                        && "CREATED".equals(items.get(3).get("status").asText()));
+
+        String count = mockMvc.perform(get("/rest/ships/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue("После пакетного создания должно быть 43 корабля.", Integer.parseInt(count) == 43);
+    }
+
+    //test3
+    @Test
+    public void createShipsComputesRatingTest() throws Exception {
+        String response = mockMvc.perform(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content("[" + TestsHelper.IS_USED_TRUE_JSON + "]"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = mapper.readTree(response).get("items").get(0).get("id").asLong();
+
+        String shipJson = mockMvc.perform(get("/rest/ships/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        ShipInfoTest actual = mapper.readValue(shipJson, ShipInfoTest.class);
+        assertTrue("Рейтинг должен вычисляться так же, как при создании одного корабля.",
+                actual.rating == 6.4 && actual.isUsed);
+    }
+
+    //test4
+    @Test
+    public void insertBatchSetsInitialVersionTest() {
+        Ship ship = new Ship();
+        ship.setName("Batch");
+        ship.setPlanet("Earth");
+        ship.setShipType(ShipType.MILITARY);
+        ship.setProdDate(new Date(32998274577071L));
+        ship.setUsed(false);
+        ship.setSpeed(0.8);
+        ship.setCrewSize(14);
+        ship.setRating(1.0);
+        shipRepository.insertBatch(Collections.singletonList(ship));
+
+        assertTrue("Пакетно созданный корабль должен получить версию из базы.",
+                Long.valueOf(0).equals(ship.getVersion())
+                        && ship.getVersion().equals(shipRepository.findById(ship.getId()).get().getVersion()));
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setShipRepository(ShipRepository shipRepository) {
+        this.shipRepository = shipRepository;
+    }
+}
@@ -0,0 +1,110 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.delete.chunk-size=3")
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class DeleteShipsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void deleteShipsWithoutFiltersTest() throws Exception {
+        mockMvc.perform(delete("/rest/ships"))
+                .andExpect(status().isBadRequest());
+
+        assertTrue("Без фильтров корабли не должны удаляться.", count("") == 40);
+    }
+
+    //test2
+    @Test
+    public void deleteShipsByFiltersTest() throws Exception {
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByShipType(ShipType.MERCHANT,
+                testsHelper.getShipInfosByPlanet("a", testsHelper.getAllShips()));
+
+        String response = mockMvc.perform(delete("/rest/ships?planet=a&shipType=MERCHANT"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue("Должно вернуться количество удаленных кораблей.", Integer.parseInt(response) == expected.size());
+        assertTrue("Подходящие корабли должны быть удалены.", count("?planet=a&shipType=MERCHANT") == 0);
+        assertTrue("Остальные корабли не должны удаляться.", count("") == 40 - expected.size());
+    }
+
+    //test3
+    @Test
+    public void deleteShipReturnRepresentationTest() throws Exception {
+        String response = mockMvc.perform(delete("/rest/ships/7").header("Prefer", "return=representation"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Preference-Applied", "return=representation"))
+                .andReturn().getResponse().getContentAsString();
+
+        ShipInfoTest actual = mapper.readValue(response, ShipInfoTest.class);
+        assertTrue("Должен вернуться удаленный корабль.", actual.equals(testsHelper.getShipInfosById(7)));
+
+        mockMvc.perform(delete("/rest/ships/7").header("Prefer", "return=representation"))
+                .andExpect(status().isNotFound());
+    }
+
+    //test4
+    @Test
+    public void deleteShipWithoutRepresentationTest() throws Exception {
+        String response = mockMvc.perform(delete("/rest/ships/8"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue("Без Prefer тело ответа должно быть пустым.", response.isEmpty());
+        mockMvc.perform(get("/rest/ships/8")).andExpect(status().isNotFound());
+    }
+
+    private int count(String query) throws Exception {
+        return Integer.parseInt(mockMvc.perform(get("/rest/ships/count" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
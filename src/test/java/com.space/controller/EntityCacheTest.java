@@ -0,0 +1,113 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.service.cache.CacheStatistics;
+import com.space.service.cache.ShipEntityCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.cache.entity.enabled=true")
+public class EntityCacheTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipEntityCache entityCache;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    public void repeatedGetIsServedFromCache() throws Exception {
+        String first = content("/rest/ships/3");
+        CacheStatistics before = entityCache.getStatistics();
+        String second = content("/rest/ships/3");
+        CacheStatistics after = entityCache.getStatistics();
+
+        assertTrue("Повторный запрос должен возвращать тот же корабль.", first.equals(second));
+        assertTrue("Повторный запрос должен обслуживаться из кэша.", after.getHits() == before.getHits() + 1);
+    }
+
+    @Test
+    public void missingShipIsCachedUntilCreated() throws Exception {
+        ShipInfoTest first = create();
+        long nextId = first.id + 1;
+
+        mockMvc.perform(get("/rest/ships/" + nextId)).andExpect(status().isNotFound());
+        CacheStatistics before = entityCache.getStatistics();
+        mockMvc.perform(get("/rest/ships/" + nextId)).andExpect(status().isNotFound());
+        CacheStatistics after = entityCache.getStatistics();
+        assertTrue("Отсутствующий корабль должен обслуживаться из кэша.", after.getHits() == before.getHits() + 1);
+
+        ShipInfoTest second = create();
+        assertTrue("Корабль должен создаться со следующим id.", second.id == nextId);
+        assertTrue("Созданный корабль должен быть виден сразу.",
+                second.equals(mapper.readValue(content("/rest/ships/" + nextId), ShipInfoTest.class)));
+    }
+
+    @Test
+    public void writesInvalidateCachedShips() throws Exception {
+        content("/rest/ships/5");
+        mockMvc.perform(post("/rest/ships/5")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Cached\"}"))
+                .andExpect(status().isOk());
+        assertTrue("После обновления кэш не должен возвращать устаревший корабль.",
+                "Cached".equals(mapper.readValue(content("/rest/ships/5"), ShipInfoTest.class).name));
+
+        mockMvc.perform(delete("/rest/ships/5")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/5")).andExpect(status().isNotFound());
+    }
+
+    private ShipInfoTest create() throws Exception {
+        String response = mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(response, ShipInfoTest.class);
+    }
+
+    private String content(String url) throws Exception {
+        return mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setEntityCache(ShipEntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+}
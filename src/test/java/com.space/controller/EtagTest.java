@@ -0,0 +1,134 @@
+package com.space.controller;
+
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.service.cache.ShipQueryCoalescer;
+import com.space.service.metrics.LatencyHistogram;
+import com.space.service.metrics.ShipMetrics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.etag.enabled=true")
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class EtagTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipQueryCoalescer coalescer;
+    private ShipMetrics metrics;
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void unchangedCollectionIsNotModifiedTest() throws Exception {
+        for (String url : new String[]{"/rest/ships?pageSize=5", "/rest/ships/count", "/rest/ships/page"}) {
+            MockHttpServletResponse first = perform(url, null);
+            String etag = first.getHeader(HttpHeaders.ETAG);
+            assertTrue("Ответ должен содержать ETag.", etag != null);
+            assertTrue("ETag коллекции должен быть слабым: форматы тела разделяют его.", etag.startsWith("W/\""));
+            assertTrue("Ответ должен зависеть от Accept.", HttpHeaders.ACCEPT.equals(first.getHeader(HttpHeaders.VARY)));
+
+            long calls = coalescer.getCalls();
+            MockHttpServletResponse response = perform(url, etag);
+            assertTrue("Неизмененная коллекция должна давать 304.", response.getStatus() == 304);
+            assertTrue("Ответ 304 должен быть пустым.", response.getContentAsString().isEmpty());
+            assertTrue("Ответ 304 должен содержать тот же ETag.", etag.equals(response.getHeader(HttpHeaders.ETAG)));
+            assertTrue("Ответ 304 должен зависеть от Accept.", HttpHeaders.ACCEPT.equals(response.getHeader(HttpHeaders.VARY)));
+            assertTrue("Сильный тег в запросе должен сравниваться слабо.", perform(url, etag.substring(2)).getStatus() == 304);
+            assertTrue("Ответ 304 не должен выполнять запрос.", coalescer.getCalls() == calls);
+        }
+    }
+
+    //test2
+    @Test
+    public void writeChangesCollectionTagTest() throws Exception {
+        String etag = perform("/rest/ships/count", null).getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        MockHttpServletResponse response = perform("/rest/ships/count", etag);
+        assertTrue("После записи должен возвращаться новый результат.", response.getStatus() == 200);
+        assertTrue("Количество должно учитывать новый корабль.", response.getContentAsString().equals("41"));
+        assertTrue("После записи ETag должен измениться.", !etag.equals(response.getHeader(HttpHeaders.ETAG)));
+    }
+
+    //test3
+    @Test
+    public void unchangedShipIsNotModifiedTest() throws Exception {
+        MockHttpServletResponse first = perform("/rest/ships/2", null);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertTrue("ETag корабля должен быть слабым: форматы тела разделяют его.", etag != null && etag.startsWith("W/\""));
+        assertTrue("ETag корабля должен содержать не только версию.", !etag.equals("W/\"0\""));
+        assertTrue("Корабль должен зависеть от Accept.", HttpHeaders.ACCEPT.equals(first.getHeader(HttpHeaders.VARY)));
+
+        long loads = calls("getShip");
+        MockHttpServletResponse response = perform("/rest/ships/2", etag);
+        assertTrue("Неизмененный корабль должен давать 304.", response.getStatus() == 304);
+        assertTrue("Ответ 304 должен быть пустым.", response.getContentAsString().isEmpty());
+        assertTrue("Ответ 304 должен содержать тот же ETag.", etag.equals(response.getHeader(HttpHeaders.ETAG)));
+        assertTrue("Ответ 304 не должен загружать корабль.", calls("getShip") == loads);
+        assertTrue("Тег без эпохи не должен совпадать.", perform("/rest/ships/2", "\"0\"").getStatus() == 200);
+
+        mockMvc.perform(post("/rest/ships/2")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Changed\"}"))
+                .andExpect(status().isOk());
+        assertTrue("Измененный корабль должен возвращаться заново.", perform("/rest/ships/2", etag).getStatus() == 200);
+    }
+
+    private long calls(String method) {
+        LatencyHistogram histogram = metrics.getServiceCalls().get(method);
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    private MockHttpServletResponse perform(String url, String ifNoneMatch) throws Exception {
+        return mockMvc.perform(ifNoneMatch == null ? get(url) : get(url).header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                .andReturn().getResponse();
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setCoalescer(ShipQueryCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Autowired
+    public void setMetrics(ShipMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,90 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ExportTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void exportAllNdJsonTest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/ships/export"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<ShipInfoTest> actual = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            actual.add(mapper.readValue(line, ShipInfoTest.class));
+        }
+
+        assertTrue("Тип содержимого должен быть NDJSON.",
+                result.getResponse().getContentType().startsWith("application/x-ndjson"));
+        assertTrue("Экспорт должен возвращать все корабли в порядке id.",
+                actual.equals(testsHelper.getShipInfosByOrder(ShipOrder.ID, testsHelper.getAllShips())));
+    }
+
+    //test2
+    @Test
+    public void exportFilteredCsvTest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/ships/export?format=CSV&shipType=MILITARY&order=RATING"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByOrder(ShipOrder.RATING,
+                testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips()));
+        boolean idsMatch = lines.length == expected.size() + 1;
+        for (int i = 1; idsMatch && i < lines.length; i++) {
+            idsMatch = Long.parseLong(lines[i].substring(0, lines[i].indexOf(','))) == expected.get(i - 1).id;
+        }
+
+        assertTrue("Первая строка CSV должна быть заголовком.",
+                lines[0].equals("id,name,planet,shipType,prodDate,isUsed,speed,crewSize,rating"));
+        assertTrue("Экспорт CSV должен учитывать фильтры и сортировку.", idsMatch);
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
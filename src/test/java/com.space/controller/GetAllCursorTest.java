@@ -0,0 +1,118 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class GetAllCursorTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void walkAllPagesOrderedById() throws Exception {
+        List<ShipInfoTest> actual = walk("/rest/ships?pageSize=7&order=ID");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByOrder(ShipOrder.ID, testsHelper.getAllShips());
+
+        assertTrue("Постраничный обход по курсору с сортировкой ID возвращает не правильный результат.", actual.equals(expected));
+    }
+
+    //test2
+    @Test
+    public void walkAllPagesOrderedByRatingWithFilter() throws Exception {
+        List<ShipInfoTest> actual = walk("/rest/ships?pageSize=4&order=RATING&isUsed=true");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByOrder(ShipOrder.RATING,
+                testsHelper.getShipInfosByIsUsed(true, testsHelper.getAllShips()));
+
+        assertTrue("Постраничный обход по курсору с сортировкой RATING возвращает не правильный результат.", actual.equals(expected));
+    }
+
+    //test3
+    @Test
+    public void walkAllPagesOrderedBySpeed() throws Exception {
+        List<ShipInfoTest> actual = walk("/rest/ships?pageSize=5&order=SPEED");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByOrder(ShipOrder.SPEED, testsHelper.getAllShips());
+
+        assertTrue("Постраничный обход по курсору с сортировкой SPEED возвращает не правильный результат.", actual.equals(expected));
+    }
+
+    //test4
+    @Test
+    public void malformedCursorReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/rest/ships?cursor=not-a-cursor")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test5
+    @Test
+    public void cursorForAnotherOrderReturnsBadRequest() throws Exception {
+        String cursor = mockMvc.perform(get("/rest/ships?cursor=&order=SPEED")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(ShipController.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/rest/ships?order=RATING&cursor=" + cursor)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<ShipInfoTest> walk(String url) throws Exception {
+        List<ShipInfoTest> ships = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            MockHttpServletResponse response = mockMvc.perform(get(url + "&cursor=" + cursor)
+                    .accept(MediaType.APPLICATION_JSON_UTF8))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            ships.addAll(mapper.readValue(response.getContentAsString(), typeReference));
+            cursor = response.getHeader(ShipController.NEXT_CURSOR_HEADER);
+        }
+        return ships;
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
@@ -0,0 +1,235 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.engine.in-memory=true")
+public class GetAllInMemoryTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    public void getAllWithFiltersPlanetIsUsedOrderSpeed() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships?planet=ur&isUsed=true&order=SPEED&pageSize=5")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        String contentAsString = resultActions.andReturn().getResponse().getContentAsString();
+        List<ShipInfoTest> actual = mapper.readValue(contentAsString, typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 5,
+                testsHelper.getShipInfosByOrder(ShipOrder.SPEED,
+                        testsHelper.getShipInfosByPlanet("ur",
+                                testsHelper.getShipInfosByIsUsed(true,
+                                        testsHelper.getAllShips()))));
+
+        assertTrue("Движок в памяти возвращает не правильный результат при запросе GET /rest/ships.", actual.equals(expected));
+    }
+
+    @Test
+    public void getAllWithFiltersShipTypeAfterBeforeOrderRating() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships?shipType=MERCHANT&after=32377442400000&before=32850741600000&pageNumber=1&order=RATING")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        String contentAsString = resultActions.andReturn().getResponse().getContentAsString();
+        List<ShipInfoTest> actual = mapper.readValue(contentAsString, typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(1, 3,
+                testsHelper.getShipInfosByOrder(ShipOrder.RATING,
+                        testsHelper.getShipInfosByShipType(ShipType.MERCHANT,
+                                testsHelper.getShipInfosByAfter(32377442400000L,
+                                        testsHelper.getShipInfosByBefore(32850741600000L,
+                                                testsHelper.getAllShips())))));
+
+        assertTrue("Движок в памяти возвращает не правильный результат при запросе GET /rest/ships.", actual.equals(expected));
+    }
+
+    @Test
+    public void walkAllPagesByCursorOrderRating() throws Exception {
+        List<ShipInfoTest> actual = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            MockHttpServletResponse response = mockMvc.perform(get("/rest/ships?order=RATING&pageSize=6&cursor=" + cursor)
+                    .accept(MediaType.APPLICATION_JSON_UTF8))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            actual.addAll(mapper.readValue(response.getContentAsString(), typeReference));
+            cursor = response.getHeader(ShipController.NEXT_CURSOR_HEADER);
+        }
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByOrder(ShipOrder.RATING, testsHelper.getAllShips());
+
+        assertTrue("Движок в памяти возвращает не правильный результат при обходе GET /rest/ships по курсору.", actual.equals(expected));
+    }
+
+    @Test
+    public void walkAllPagesByNumberEveryOrder() throws Exception {
+        for (ShipOrder order : ShipOrder.values()) {
+            List<ShipInfoTest> actual = new ArrayList<>();
+            for (int pageNumber = 0; pageNumber <= 6; pageNumber++) {
+                String response = mockMvc.perform(get("/rest/ships?pageSize=7&pageNumber=" + pageNumber + "&order=" + order)
+                        .accept(MediaType.APPLICATION_JSON_UTF8))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                actual.addAll(mapper.readValue(response, typeReference));
+            }
+            List<ShipInfoTest> expected = testsHelper.getAllShips();
+            if (order == ShipOrder.DATE) {
+                expected.sort(Comparator.comparingLong((ShipInfoTest ship) -> ship.prodDate).thenComparingLong(ship -> ship.id));
+            } else expected = testsHelper.getShipInfosByOrder(order, expected);
+
+            assertTrue("Движок в памяти возвращает не правильные страницы для порядка " + order + ".", actual.equals(expected));
+        }
+    }
+
+    @Test
+    public void getCountWithFiltersCrewSizeRating() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships/count?minCrewSize=100&maxCrewSize=3000&minRating=1")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        int actual = Integer.parseInt(resultActions.andReturn().getResponse().getContentAsString());
+        int expected = testsHelper.getShipInfosByMinCrewSize(100,
+                testsHelper.getShipInfosByMaxCrewSize(3000,
+                        testsHelper.getShipInfosByMinRating(1.,
+                                testsHelper.getAllShips()))).size();
+
+        assertTrue("Движок в памяти возвращает не правильный результат при запросе GET /rest/ships/count.", actual == expected);
+    }
+
+    @Test
+    public void getAllWithMixedCasePlanetMatchesCollation() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships?planet=uR&pageSize=40")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        String contentAsString = resultActions.andReturn().getResponse().getContentAsString();
+        List<ShipInfoTest> actual = mapper.readValue(contentAsString, typeReference);
+        List<ShipInfoTest> expected = new ArrayList<>();
+        for (ShipInfoTest ship : testsHelper.getAllShips()) {
+            if (ship.planet.toLowerCase().contains("ur")) expected.add(ship);
+        }
+
+        assertTrue("Движок в памяти должен искать без учета регистра.", !expected.isEmpty() && actual.equals(expected));
+    }
+
+    @Test
+    public void getCountWithLikeWildcards() throws Exception {
+        int expected = 0;
+        for (ShipInfoTest ship : testsHelper.getAllShips()) {
+            if (ship.planet.toLowerCase().matches(".*e.t.*")) expected++;
+        }
+
+        assertTrue("Движок в памяти должен понимать _ как любой символ.", countByPlanet("E_T") == expected);
+        assertTrue("Движок в памяти должен понимать % как любую строку.",
+                countByPlanet("s%n") == countByPlanet("saturn"));
+        assertTrue("Экранированный символ должен искаться буквально.", countByPlanet("e\\_t") == 0);
+    }
+
+    @Test
+    public void createAndDeleteAreWrittenThrough() throws Exception {
+        String url = "/rest/ships/count?name=123456789&shipType=MILITARY";
+        assertTrue("Перед созданием корабль не должен находиться.", count(url) == 0);
+
+        String response = mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        ShipInfoTest created = mapper.readValue(response, ShipInfoTest.class);
+        assertTrue("Созданный корабль должен сразу находиться движком в памяти.", count(url) == 1);
+
+        mockMvc.perform(delete("/rest/ships/" + created.id)).andExpect(status().isOk());
+        assertTrue("Удалённый корабль не должен находиться движком в памяти.", count(url) == 0);
+    }
+
+    @Test
+    public void writtenThroughProdDateIsTheStoredDate() throws Exception {
+        long noon = atNoon(3000);
+        String json = TestsHelper.NORMAL_JSON.replace("123456789", "NoonShip").replace("32998274577071", String.valueOf(noon));
+        String response = mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        ShipInfoTest created = mapper.readValue(response, ShipInfoTest.class);
+        assertTrue("Дата выпуска должна сохраняться без времени суток.", created.prodDate == noon - 12 * 3600 * 1000L);
+        assertTrue("Корабль, выпущенный в день before, должен находиться, как и в SQL.",
+                count("/rest/ships/count?name=NoonShip&before=" + (noon - 12 * 3600 * 1000L)) == 1);
+
+        mockMvc.perform(post("/rest/ships/" + created.id)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"prodDate\":" + atNoon(2990) + "}"))
+                .andExpect(status().isOk());
+        assertTrue("Измененная дата выпуска должна сохраняться без времени суток.",
+                count("/rest/ships/count?name=NoonShip&before=" + (atNoon(2990) - 12 * 3600 * 1000L)) == 1);
+
+        mockMvc.perform(delete("/rest/ships/" + created.id)).andExpect(status().isOk());
+    }
+
+    private static long atNoon(int year) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, Calendar.JANUARY, 1, 12, 0, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    private int count(String url) throws Exception {
+        return Integer.parseInt(mockMvc.perform(get(url)).andReturn().getResponse().getContentAsString());
+    }
+
+    private int countByPlanet(String planet) throws Exception {
+        return Integer.parseInt(mockMvc.perform(get("/rest/ships/count").param("planet", planet))
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
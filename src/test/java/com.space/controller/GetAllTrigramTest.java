@@ -0,0 +1,111 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.index.trigram=true")
+public class GetAllTrigramTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    public void getAllWithShortNamePattern() throws Exception {
+        List<ShipInfoTest> actual = list("/rest/ships?name=ra&pageSize=40");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByName("ra", testsHelper.getAllShips());
+
+        assertTrue("Фильтр name короче триграммы возвращает не правильный результат.", actual.equals(expected));
+    }
+
+    @Test
+    public void getAllWithNamePatternKeepsCaseOfTheQuery() throws Exception {
+        List<ShipInfoTest> actual = list("/rest/ships?name=Exc&pageSize=40");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByName("Exc", testsHelper.getAllShips());
+
+        assertTrue("Индекс триграмм не должен менять смысл фильтра name.", actual.equals(expected));
+    }
+
+    @Test
+    public void getAllWithNameAndPlanetPatterns() throws Exception {
+        List<ShipInfoTest> actual = list("/rest/ships?name=Star&planet=Mercu&pageSize=40");
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByName("Star",
+                testsHelper.getShipInfosByPlanet("Mercu", testsHelper.getAllShips()));
+
+        assertTrue("Фильтры name и planet возвращают не правильный результат.", actual.equals(expected));
+    }
+
+    @Test
+    public void getCountWithAbsentTrigram() throws Exception {
+        assertTrue("Для отсутствующей триграммы количество должно быть 0.", count("/rest/ships/count?name=qqq") == 0);
+    }
+
+    @Test
+    public void updatedNameIsIndexed() throws Exception {
+        rename(33, "Zyxwvut");
+        assertTrue("Новое имя корабля должно находиться по индексу.", count("/rest/ships/count?name=xwv") == 1);
+        assertTrue("Старое имя корабля не должно находиться по индексу.", count("/rest/ships/count?name=Vorlon") == 0);
+
+        rename(33, "Vorlon");
+        assertTrue("Восстановленное имя корабля должно находиться по индексу.", count("/rest/ships/count?name=Vorlon") == 1);
+    }
+
+    private void rename(long id, String name) throws Exception {
+        mockMvc.perform(post("/rest/ships/" + id)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\": \"" + name + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private List<ShipInfoTest> list(String url) throws Exception {
+        String contentAsString = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(contentAsString, typeReference);
+    }
+
+    private int count(String url) throws Exception {
+        return Integer.parseInt(mockMvc.perform(get(url)).andReturn().getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
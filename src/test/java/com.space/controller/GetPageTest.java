@@ -0,0 +1,120 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class GetPageTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+    private TypeReference<List<ShipInfoTest>> typeReference = new TypeReference<List<ShipInfoTest>>() {
+    };
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void getPageWithoutFiltersReturnsFirstPageAndTotal() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships/page")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        JsonNode page = mapper.readTree(resultActions.andReturn().getResponse().getContentAsString());
+        List<ShipInfoTest> actual = mapper.readValue(mapper.treeAsTokens(page.get("ships")), typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 3, testsHelper.getAllShips());
+
+        assertTrue("Возвращается не правильная страница при запросе GET /rest/ships/page.", actual.equals(expected));
+        assertTrue("Возвращается не правильное количество при запросе GET /rest/ships/page.",
+                page.get("count").asInt() == testsHelper.getAllShips().size());
+    }
+
+    //test2
+    @Test
+    public void getPageWithFiltersShipTypeMinSpeedPageNumber() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships/page?shipType=MERCHANT&minSpeed=0.5&pageNumber=1")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        JsonNode page = mapper.readTree(resultActions.andReturn().getResponse().getContentAsString());
+        List<ShipInfoTest> filtered = testsHelper.getShipInfosByShipType(ShipType.MERCHANT,
+                testsHelper.getShipInfosByMinSpeed(0.5, testsHelper.getAllShips()));
+        List<ShipInfoTest> actual = mapper.readValue(mapper.treeAsTokens(page.get("ships")), typeReference);
+
+        assertTrue("Возвращается не правильная страница при запросе GET /rest/ships/page с параметрами shipType, minSpeed и pageNumber.",
+                actual.equals(testsHelper.getShipInfosByPage(1, 3, filtered)));
+        assertTrue("Возвращается не правильное количество при запросе GET /rest/ships/page с параметрами shipType, minSpeed и pageNumber.",
+                page.get("count").asInt() == filtered.size());
+    }
+
+    //test3
+    @Test
+    public void getPageBeyondLastPageReturnsTotal() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships/page?planet=Earth&pageNumber=10")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        JsonNode page = mapper.readTree(resultActions.andReturn().getResponse().getContentAsString());
+
+        assertTrue("За последней страницей список кораблей должен быть пустым.", page.get("ships").size() == 0);
+        assertTrue("За последней страницей должно возвращаться общее количество.",
+                page.get("count").asInt() == testsHelper.getShipInfosByPlanet("Earth", testsHelper.getAllShips()).size());
+    }
+
+    //test4
+    @Test
+    public void getFullLastPageReturnsTotal() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships/page?pageNumber=4&pageSize=8")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        JsonNode page = mapper.readTree(resultActions.andReturn().getResponse().getContentAsString());
+        List<ShipInfoTest> actual = mapper.readValue(mapper.treeAsTokens(page.get("ships")), typeReference);
+
+        assertTrue("Возвращается не правильная последняя страница при запросе GET /rest/ships/page.",
+                actual.equals(testsHelper.getShipInfosByPage(4, 8, testsHelper.getAllShips())));
+        assertTrue("Для полной последней страницы должно возвращаться общее количество.",
+                page.get("count").asInt() == testsHelper.getAllShips().size());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
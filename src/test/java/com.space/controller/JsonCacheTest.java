@@ -0,0 +1,100 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.service.cache.CacheStatistics;
+import com.space.service.cache.ShipJsonCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.cache.json.enabled=true")
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class JsonCacheTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipJsonCache jsonCache;
+
+    private ObjectMapper mapper = new ObjectMapper();
+    private TestsHelper testsHelper = new TestsHelper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void repeatedListIsServedFromCacheTest() throws Exception {
+        String first = content("/rest/ships?pageSize=10");
+        CacheStatistics before = jsonCache.getStatistics();
+        String second = content("/rest/ships?pageSize=10");
+        CacheStatistics after = jsonCache.getStatistics();
+
+        assertTrue("Повторный ответ должен совпадать.", first.equals(second));
+        assertTrue("Повторный ответ должен собираться из кэша.", after.getHits() == before.getHits() + 10);
+        assertTrue("Повторный ответ не должен кодировать корабли заново.", after.getMisses() == before.getMisses());
+
+        List<ShipInfoTest> ships = mapper.readValue(second, new TypeReference<List<ShipInfoTest>>() {
+        });
+        assertTrue("Ответ из кэша должен совпадать с ожидаемым.",
+                ships.equals(testsHelper.getShipInfosByPage(0, 10, testsHelper.getAllShips())));
+    }
+
+    //test2
+    @Test
+    public void updatedShipIsEncodedAgainTest() throws Exception {
+        content("/rest/ships/4");
+        mockMvc.perform(post("/rest/ships/4")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Encoded\"}"))
+                .andExpect(status().isOk());
+
+        ShipInfoTest ship = mapper.readValue(content("/rest/ships/4"), ShipInfoTest.class);
+        assertTrue("Измененный корабль должен кодироваться заново.", ship.name.equals("Encoded"));
+        assertTrue("Список должен содержать измененный корабль.", content("/rest/ships?name=Encoded").contains("Encoded"));
+    }
+
+    private String content(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setJsonCache(ShipJsonCache jsonCache) {
+        this.jsonCache = jsonCache;
+    }
+}
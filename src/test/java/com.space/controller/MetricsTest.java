@@ -0,0 +1,114 @@
+package com.space.controller;
+
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.metrics.hibernate-statistics=true")
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class MetricsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void requestsAreTimedTest() throws Exception {
+        String before = metrics().getContentAsString();
+        perform("/rest/ships?pageSize=5");
+        perform("/rest/ships?pageSize=5");
+        perform("/rest/ships/2");
+        String after = metrics().getContentAsString();
+
+        String list = "ship_http_request_duration_seconds_count{endpoint=\"GET /rest/ships\"}";
+        assertTrue("Запросы списка должны учитываться.", value(after, list) == value(before, list) + 2);
+        assertTrue("Запрос корабля должен учитываться.",
+                value(after, "ship_http_request_duration_seconds_count{endpoint=\"GET /rest/ships/{id}\"}") >= 1);
+        assertTrue("Гистограмма должна содержать корзину +Inf.", after.contains(
+                "ship_http_request_duration_seconds_bucket{endpoint=\"GET /rest/ships\",le=\"+Inf\"}"));
+
+        String service = "ship_service_call_duration_seconds_count{method=\"getShipsList\"}";
+        assertTrue("Вызовы сервиса должны учитываться.", value(after, service) == value(before, service) + 2);
+        assertTrue("Запросы к базе должны учитываться.",
+                value(after, "ship_db_queries_total") > value(before, "ship_db_queries_total"));
+        assertTrue("Строки из базы должны учитываться.",
+                value(after, "ship_db_query_rows_total") > value(before, "ship_db_query_rows_total"));
+        assertTrue("Ожидание соединения должно учитываться.",
+                value(after, "ship_pool_connection_wait_seconds_count{pool=\"test\"}") > 0);
+        assertTrue("Кэши должны экспортироваться.", after.contains("ship_cache_hits_total{cache=\"query\"}"));
+    }
+
+    //test2
+    @Test
+    public void errorsAreCountedTest() throws Exception {
+        String errors = "ship_http_errors_total{endpoint=\"GET /rest/ships/{id}\",status=\"400\"}";
+        String calls = "ship_service_call_duration_seconds_count{method=\"getShip\"}";
+        String before = metrics().getContentAsString();
+
+        mockMvc.perform(get("/rest/ships/0"));
+        String after = metrics().getContentAsString();
+        assertTrue("Ошибочный ответ должен учитываться.", value(after, errors) == value(before, errors) + 1);
+        assertTrue("Вызов сервиса должен учитываться.", value(after, calls) == value(before, calls) + 1);
+    }
+
+    //test3
+    @Test
+    public void scrapeFormatTest() throws Exception {
+        MockHttpServletResponse response = metrics();
+        assertTrue("Тип содержимого должен быть текстовым.", response.getContentType().startsWith("text/plain"));
+        assertTrue("Метрики не должны учитывать сами себя.",
+                !response.getContentAsString().contains("/rest/metrics"));
+        for (String line : response.getContentAsString().split("\n")) {
+            assertTrue("Строка должна быть комментарием или значением: " + line,
+                    line.startsWith("# ") || line.matches("[a-z_]+(\\{.*\\})? [0-9.E+-]+"));
+        }
+    }
+
+    private MockHttpServletResponse metrics() throws Exception {
+        return perform("/rest/metrics");
+    }
+
+    private MockHttpServletResponse perform(String url) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get(url)).andReturn().getResponse();
+        assertTrue("Запрос должен выполниться: " + url, response.getStatus() == 200);
+        return response;
+    }
+
+    private static double value(String metrics, String sample) {
+        Matcher matcher = Pattern.compile("^" + Pattern.quote(sample) + " (\\S+)$", Pattern.MULTILINE).matcher(metrics);
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
@@ -0,0 +1,102 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.service.cache.CacheStatistics;
+import com.space.service.cache.ShipQueryCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.cache.query.enabled=true")
+public class QueryCacheTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipQueryCache queryCache;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    public void repeatedQueryIsServedFromCache() throws Exception {
+        String url = "/rest/ships?planet=Saturn&order=SPEED&pageNumber=1";
+        String first = content(url);
+        CacheStatistics before = queryCache.getStatistics();
+        String second = content(url);
+        CacheStatistics after = queryCache.getStatistics();
+
+        assertTrue("Повторный запрос должен возвращать тот же результат.", first.equals(second));
+        assertTrue("Повторный запрос должен обслуживаться из кэша.", after.getHits() == before.getHits() + 1);
+    }
+
+    @Test
+    public void writesInvalidateCachedCounts() throws Exception {
+        String url = "/rest/ships/count?name=123456789";
+        assertTrue("Перед созданием корабль не должен находиться.", Integer.parseInt(content(url)) == 0);
+
+        String response = mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        ShipInfoTest created = mapper.readValue(response, ShipInfoTest.class);
+        assertTrue("После создания кэш не должен возвращать устаревшее количество.", Integer.parseInt(content(url)) == 1);
+
+        mockMvc.perform(delete("/rest/ships/" + created.id)).andExpect(status().isOk());
+        assertTrue("После удаления кэш не должен возвращать устаревшее количество.", Integer.parseInt(content(url)) == 0);
+    }
+
+    @Test
+    public void differentFiltersAreCachedSeparately() throws Exception {
+        int used = Integer.parseInt(content("/rest/ships/count?isUsed=true"));
+        int unused = Integer.parseInt(content("/rest/ships/count?isUsed=false"));
+
+        assertTrue("Разные фильтры должны кэшироваться отдельно.",
+                used == testsHelper.getShipInfosByIsUsed(true, testsHelper.getAllShips()).size()
+                        && unused == testsHelper.getShipInfosByIsUsed(false, testsHelper.getAllShips()).size());
+    }
+
+    private String content(String url) throws Exception {
+        return mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setQueryCache(ShipQueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+}
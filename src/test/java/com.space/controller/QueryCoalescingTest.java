@@ -0,0 +1,137 @@
+package com.space.controller;
+
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import com.space.service.ShipFilter;
+import com.space.service.cache.ShipQueryCoalescer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class QueryCoalescingTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipQueryCoalescer coalescer;
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void identicalQueriesShareOneCallTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        long shared = coalescer.getShared();
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+                coalescer.getCount(filter(ShipType.MILITARY), () -> await(started, release, 7)));
+        assertTrue("Первый запрос должен начаться.", started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() ->
+                coalescer.getCount(filter(ShipType.MILITARY), () -> -1));
+        waitFor(() -> coalescer.getShared() == shared + 1);
+
+        CompletableFuture<Integer> other = CompletableFuture.supplyAsync(() ->
+                coalescer.getCount(filter(ShipType.TRANSPORT), () -> 3));
+        assertTrue("Другой фильтр не должен ждать чужой запрос.", other.get(5, TimeUnit.SECONDS) == 3);
+
+        release.countDown();
+        assertTrue("Первый вызов должен вернуть свой результат.", first.get(5, TimeUnit.SECONDS) == 7);
+        assertTrue("Одинаковый вызов должен получить общий результат.", second.get(5, TimeUnit.SECONDS) == 7);
+        assertTrue("Доля общих результатов должна быть положительной.", coalescer.getSharedRatio() > 0);
+    }
+
+    //test2
+    @Test
+    public void finishedWriteIsNotHiddenTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> stale = CompletableFuture.supplyAsync(() ->
+                coalescer.getCount(filter(ShipType.MILITARY), () -> await(started, release, 7)));
+        assertTrue("Первый запрос должен начаться.", started.await(5, TimeUnit.SECONDS));
+
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        try {
+            assertTrue("После записи запрос должен выполняться заново.",
+                    coalescer.getCount(filter(ShipType.MILITARY), () -> 8) == 8);
+        } finally {
+            release.countDown();
+        }
+        assertTrue("Старый запрос должен вернуть свой результат.", stale.get(5, TimeUnit.SECONDS) == 7);
+    }
+
+    //test3
+    @Test
+    public void countThroughControllerTest() throws Exception {
+        String count = mockMvc.perform(get("/rest/ships/count?shipType=MILITARY"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue("Количество должно совпадать.", Integer.parseInt(count) ==
+                new TestsHelper().getShipInfosByShipType(ShipType.MILITARY, new TestsHelper().getAllShips()).size());
+    }
+
+    private static ShipFilter filter(ShipType shipType) {
+        return new ShipFilter(null, null, shipType, null, null, null, null, null, null, null, null, null);
+    }
+
+    private static Integer await(CountDownLatch started, CountDownLatch release, int result) {
+        started.countDown();
+        try {
+            release.await();
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertTrue("Условие не выполнилось вовремя.", condition.getAsBoolean());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setCoalescer(ShipQueryCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+}
@@ -0,0 +1,143 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Calendar;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = {"ship.rating.current-year=3020", "ship.rating.job.chunk-size=7",
+        "ship.rating.job.threads=3", "ship.rating.job.pause-ms=0", "ship.rating.job.resume-on-startup=false"})
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class RatingJobTest {
+    private static final int REFERENCE_YEAR = 3020;
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private JdbcTemplate jdbcTemplate;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        jdbcTemplate.update("DELETE FROM ship_rating_job");
+    }
+
+    //test1
+    @Test
+    public void rerateAllShipsTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/rating-job")).andExpect(status().isAccepted());
+        JsonNode status = awaitFinished();
+
+        boolean allRerated = true;
+        for (ShipInfoTest expected : testsHelper.getAllShips()) {
+            allRerated &= rating(expected.id) == expectedRating(expected);
+        }
+
+        assertTrue("Задача должна обработать все корабли.", status.get("processed").asLong() == 40);
+        assertTrue("Рейтинги всех кораблей должны быть пересчитаны для нового года.", allRerated);
+    }
+
+    //test2
+    @Test
+    public void resumeFromCheckpointTest() throws Exception {
+        jdbcTemplate.update("INSERT INTO ship_rating_job (name, reference_year, last_id, updated, finished) " +
+                "VALUES ('rerate', ?, 20, 0, FALSE)", REFERENCE_YEAR);
+
+        mockMvc.perform(post("/rest/ships/rating-job")).andExpect(status().isAccepted());
+        JsonNode status = awaitFinished();
+
+        ShipInfoTest before = testsHelper.getShipInfosById(1);
+        ShipInfoTest after = testsHelper.getShipInfosById(30);
+        assertTrue("Задача должна продолжиться с сохраненной позиции.", status.get("processed").asLong() == 20);
+        assertTrue("Корабли до контрольной точки не должны пересчитываться повторно.", rating(1) == before.rating);
+        assertTrue("Корабли после контрольной точки должны быть пересчитаны.", rating(30) == expectedRating(after));
+    }
+
+    //test3
+    @Test
+    public void shipBuiltAfterReferenceYearIsSkippedTest() throws Exception {
+        jdbcTemplate.update("INSERT INTO ship (name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) " +
+                "VALUES ('Future', 'Mars', 'MERCHANT', '3021-06-01', false, 0.5, 10, 1.5)");
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM ship WHERE name = 'Future'", Long.class);
+
+        mockMvc.perform(post("/rest/ships/rating-job")).andExpect(status().isAccepted());
+        JsonNode status = awaitFinished();
+
+        assertTrue("Задача должна обработать все корабли.", status.get("processed").asLong() == 41);
+        assertTrue("Рейтинг корабля из будущего не должен меняться.", rating(id) == 1.5);
+        assertTrue("Остальные корабли должны быть пересчитаны.", rating(30) == expectedRating(testsHelper.getShipInfosById(30)));
+    }
+
+    private JsonNode awaitFinished() throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            JsonNode status = mapper.readTree(mockMvc.perform(get("/rest/ships/rating-job"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            String state = status.get("state").asText();
+            if (!"RUNNING".equals(state)) {
+                assertTrue("Задача должна завершиться успешно.", "FINISHED".equals(state));
+                return status;
+            }
+            assertTrue("Задача должна завершиться вовремя.", System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private double rating(long id) throws Exception {
+        String response = mockMvc.perform(get("/rest/ships/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(response, ShipInfoTest.class).rating;
+    }
+
+    private static double expectedRating(ShipInfoTest ship) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(ship.prodDate);
+        double coefficient = ship.isUsed ? 0.5 : 1;
+        double rating = (80 * ship.speed * coefficient) / (REFERENCE_YEAR - calendar.get(Calendar.YEAR) + 1);
+        return new BigDecimal(rating).setScale(2, RoundingMode.HALF_DOWN).doubleValue();
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+}
@@ -0,0 +1,145 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.ReadRouting;
+import com.space.config.ReadWriteDataSource;
+import com.space.config.ReadYourWritesInterceptor;
+import com.space.config.SchemaMigrations;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = {
+        "db.replicas=replica",
+        "replica.url=jdbc:h2:mem:read-replica;DB_CLOSE_DELAY=-1",
+        "replica.pool.name=test-replica",
+        "replica.pool.min-idle=1",
+        "db.read-your-writes-ms=60000"})
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ReadReplicaTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        SchemaMigrations.migrate(context.getEnvironment(), "replica", replica.getDataSource());
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("test.sql"));
+        populator.setSqlScriptEncoding("UTF-8");
+        DatabasePopulatorUtils.execute(populator, replica.getDataSource());
+        replica.update("UPDATE ship SET name = 'Replica' WHERE id = 1");
+    }
+
+    //test1
+    @Test
+    public void readsGoToReplicaTest() throws Exception {
+        assertTrue("Корабль должен читаться с реплики.", getShip(1, "reader").name.equals("Replica"));
+        assertTrue("Список должен читаться с реплики.", content("/rest/ships?name=Replica", "reader").contains("Replica"));
+        assertTrue("Количество должно считаться на реплике.", content("/rest/ships/count?name=Replica", "reader").equals("1"));
+        assertTrue("Страница должна читаться с реплики.", content("/rest/ships/page?name=Replica", "reader").contains("Replica"));
+        assertTrue("Страница по курсору должна читаться с реплики.",
+                content("/rest/ships?name=Replica&cursor=", "reader").contains("Replica"));
+        assertTrue("Основная база не должна меняться.",
+                primary.queryForObject("SELECT COUNT(*) FROM ship WHERE name = 'Replica'", Integer.class) == 0);
+    }
+
+    //test2
+    @Test
+    public void writerReadsOwnWritesTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/1")
+                .header(ReadYourWritesInterceptor.CLIENT_ID_HEADER, "writer")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Written\"}"))
+                .andExpect(status().isOk());
+
+        assertTrue("Записавший клиент должен читать с основной базы.", getShip(1, "writer").name.equals("Written"));
+        assertTrue("Записавший клиент должен считать на основной базе.",
+                content("/rest/ships/count?name=Written", "writer").equals("1"));
+        assertTrue("Другой клиент должен читать с реплики.", getShip(1, "reader").name.equals("Replica"));
+    }
+
+    //test3
+    @Test
+    public void windowStartsWhenWriteFinishesTest() throws Exception {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(200);
+        MockHttpServletRequest write = request("POST");
+        interceptor.preHandle(write, new MockHttpServletResponse(), null);
+        Thread.sleep(300);
+        interceptor.afterCompletion(write, new MockHttpServletResponse(), null, null);
+
+        MockHttpServletRequest read = request("GET");
+        interceptor.preHandle(read, new MockHttpServletResponse(), null);
+        try {
+            assertTrue("После долгой записи клиент должен читать с основной базы.",
+                    !ReadRouting.onReplica(ReadRouting::useReplica));
+        } finally {
+            interceptor.afterCompletion(read, new MockHttpServletResponse(), null, null);
+        }
+        assertTrue("После запроса привязка к основной базе должна сниматься.", ReadRouting.onReplica(ReadRouting::useReplica));
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/rest/ships");
+        request.addHeader(ReadYourWritesInterceptor.CLIENT_ID_HEADER, "slow-writer");
+        return request;
+    }
+
+    private ShipInfoTest getShip(long id, String client) throws Exception {
+        return mapper.readValue(content("/rest/ships/" + id, client), ShipInfoTest.class);
+    }
+
+    private String content(String url, String client) throws Exception {
+        return mockMvc.perform(get(url).header(ReadYourWritesInterceptor.CLIENT_ID_HEADER, client))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        ReadWriteDataSource routing = (ReadWriteDataSource) dataSource;
+        this.primary = new JdbcTemplate(routing.getPrimary());
+        this.replica = new JdbcTemplate(routing.getReplicas().get(0));
+    }
+}
@@ -0,0 +1,178 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import com.space.service.memory.ShipFleetStats;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.stats.incremental=true")
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class ShipStatsTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+    private ShipFleetStats fleetStats;
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        fleetStats.load();
+    }
+
+    //test1
+    @Test
+    public void statsMatchShipsTest() throws Exception {
+        JsonNode stats = stats();
+        List<ShipInfoTest> ships = testsHelper.getAllShips();
+        List<ShipInfoTest> merchants = testsHelper.getShipInfosByShipType(ShipType.MERCHANT, ships);
+
+        double minSpeed = ships.stream().mapToDouble(ship -> ship.speed).min().getAsDouble();
+        double maxCrewSize = ships.stream().mapToInt(ship -> ship.crewSize).max().getAsInt();
+        double meanRating = merchants.stream().mapToDouble(ship -> ship.rating).average().getAsDouble();
+        double[] ratings = ships.stream().mapToDouble(ship -> ship.rating).sorted().toArray();
+        double medianRating = ratings[ratings.length / 2];
+
+        assertTrue("Общее количество кораблей должно совпадать.", stats.path("total").path("count").asLong() == 40);
+        assertTrue("Количество кораблей по типу должно совпадать.",
+                stats.path("byShipType").path("MERCHANT").path("count").asLong() == merchants.size());
+        assertTrue("Минимальная скорость должна совпадать.",
+                stats.path("total").path("speed").path("min").asDouble() == minSpeed);
+        assertTrue("Максимальный размер экипажа должен совпадать.",
+                stats.path("total").path("crewSize").path("max").asDouble() == maxCrewSize);
+        assertTrue("Средний рейтинг по типу должен совпадать.", Math.abs(
+                stats.path("byShipType").path("MERCHANT").path("rating").path("mean").asDouble() - meanRating) < 1e-9);
+        assertTrue("Медиана рейтинга должна быть точной до ширины корзины.",
+                Math.abs(stats.path("total").path("rating").path("p50").asDouble() - medianRating) <= 0.5);
+    }
+
+    //test2
+    @Test
+    public void statsFollowWritesTest() throws Exception {
+        List<ShipInfoTest> ships = testsHelper.getAllShips();
+        long earth = testsHelper.getShipInfosByPlanet("Earth", ships).stream()
+                .filter(ship -> ship.id != 3 && ship.id != 4).count() + 2;
+
+        mockMvc.perform(post("/rest/ships/")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/ships/3")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"planet\":\"Earth\",\"crewSize\":9999}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/ships/4")).andExpect(status().isOk());
+
+        JsonNode incremental = stats();
+        fleetStats.load();
+        JsonNode rebuilt = stats();
+
+        assertTrue("Изменения должны учитываться в статистике по планете.",
+                incremental.path("byPlanet").path("Earth").path("count").asLong() == earth);
+        assertTrue("Удаленный корабль не должен учитываться.", incremental.path("total").path("count").asLong() == 40);
+        assertTrue("Новый размер экипажа должен учитываться.",
+                incremental.path("total").path("crewSize").path("max").asDouble() == 9999);
+        assertTrue("Статистика после изменений должна совпадать с полным пересчетом до ширины корзины.",
+                sameNumbers(incremental, rebuilt, 0));
+    }
+
+    //test3
+    @Test
+    public void statsBoundedAfterRemovingExtremesTest() throws Exception {
+        for (long id = 1; id <= 20; id++) mockMvc.perform(delete("/rest/ships/" + id)).andExpect(status().isOk());
+
+        JsonNode incremental = stats();
+        fleetStats.load();
+        JsonNode rebuilt = stats();
+
+        assertTrue("Удаленные корабли не должны учитываться.", incremental.path("total").path("count").asLong() == 20);
+        assertTrue("Статистика после удалений должна совпадать с полным пересчетом до ширины корзины.",
+                sameNumbers(incremental, rebuilt, 0));
+    }
+
+    /**
+     * Counts must match exactly and moments up to rounding; min, max and percentiles to one bucket width.
+     */
+    private static boolean sameNumbers(JsonNode expected, JsonNode actual, double bucketWidth) {
+        if (expected.isNumber()) {
+            return actual.isNumber() && Math.abs(expected.asDouble() - actual.asDouble()) <= bucketWidth + 1e-9;
+        }
+        if (expected.size() != actual.size()) return false;
+        Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!sameNumbers(field.getValue(), actual.path(field.getKey()), widthOf(field.getKey(), bucketWidth))) {
+                return false;
+            }
+        }
+        return expected.isNull() == actual.isNull();
+    }
+
+    private static double widthOf(String field, double bucketWidth) {
+        switch (field) {
+            case "speed":
+                return 0.01;
+            case "rating":
+                return 0.5;
+            case "crewSize":
+                return 100;
+            case "count":
+                return 0;
+            case "mean":
+            case "stdDev":
+                return 1e-6;
+            default:
+                return bucketWidth;
+        }
+    }
+
+    private JsonNode stats() throws Exception {
+        return mapper.readTree(mockMvc.perform(get("/rest/ships/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+
+    @Autowired
+    public void setFleetStats(ShipFleetStats fleetStats) {
+        this.fleetStats = fleetStats;
+    }
+}
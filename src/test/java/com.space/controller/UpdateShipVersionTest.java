@@ -0,0 +1,112 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.MyWebAppInit;
+import com.space.config.WebConfig;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestDataSourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {TestDataSourceConfig.class, MyWebAppInit.class, WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "ship.etag.enabled=true")
+@Sql(scripts = "classpath:test.sql", config = @SqlConfig(encoding = "UTF-8"))
+public class UpdateShipVersionTest {
+
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    //test1
+    @Test
+    public void updateWithStaleIfMatchTest() throws Exception {
+        String etag = mockMvc.perform(get("/rest/ships/5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        String updated = mockMvc.perform(post("/rest/ships/5")
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Excalibur II\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue("После обновления ETag должен измениться.", updated != null && !updated.equals(etag));
+
+        mockMvc.perform(post("/rest/ships/5")
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Excalibur III\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(post("/rest/ships/5")
+                .header("If-Match", "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\":\"Excalibur III\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertTrue("Устаревшее обновление не должно применяться.", "Excalibur II".equals(ship(5).name));
+    }
+
+    //test2
+    @Test
+    public void concurrentUpdatesAreNotLostTest() throws Exception {
+        CompletableFuture<Void> rename = CompletableFuture.runAsync(() -> update(12, "{\"name\":\"Hunter V\"}"));
+        CompletableFuture<Void> recrew = CompletableFuture.runAsync(() -> update(12, "{\"crewSize\":77}"));
+        CompletableFuture.allOf(rename, recrew).join();
+
+        ShipInfoTest actual = ship(12);
+        assertTrue("Оба параллельных обновления должны сохраниться.",
+                "Hunter V".equals(actual.name) && actual.crewSize == 77);
+        String etag = mockMvc.perform(get("/rest/ships/12")).andReturn().getResponse().getHeader("ETag");
+        assertTrue("Каждое обновление должно увеличивать версию.", etag.endsWith("-2\""));
+    }
+
+    private void update(long id, String json) {
+        try {
+            mockMvc.perform(post("/rest/ships/" + id)
+                    .contentType(MediaType.APPLICATION_JSON_UTF8)
+                    .content(json))
+                    .andExpect(status().isOk());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ShipInfoTest ship(long id) throws Exception {
+        String response = mockMvc.perform(get("/rest/ships/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(response, ShipInfoTest.class);
+    }
+
+    @Autowired
+    public void setContext(WebApplicationContext context) {
+        this.context = context;
+    }
+}
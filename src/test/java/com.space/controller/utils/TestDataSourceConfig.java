@@ -1,11 +1,22 @@
 package com.space.controller.utils;
 
+import com.space.config.DataSourcePools;
+import com.space.config.PoolMetrics;
+import com.space.config.SchemaMigrations;
+import com.space.service.metrics.ShipStatisticsFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -15,16 +26,24 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
-
-import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.UUID;
 
 @Configuration
 @EnableTransactionManagement
 @ComponentScan("com.space.service")
 @EnableJpaRepositories(basePackages = "com.space.repository")
 public class TestDataSourceConfig {
+    private ConfigurableEnvironment environment;
+
+    @Autowired
+    public void setEnvironment(ConfigurableEnvironment environment) {
+        this.environment = environment;
+    }
 
     @Bean
+    @DependsOn("flyway")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource());
@@ -32,20 +51,33 @@ public class TestDataSourceConfig {
 
         JpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
         em.setJpaVendorAdapter(vendorAdapter);
+        em.setJpaPropertyMap(Collections.singletonMap(ShipStatisticsFactory.PROPERTY, ShipStatisticsFactory.class.getName()));
 
         return em;
     }
 
-    @Bean
+    @Bean(destroyMethod = "close")
     public DataSource dataSource() {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        properties.setProperty("db.pool.name", "test");
+        environment.getPropertySources().addLast(new PropertiesPropertySource("testDataSource", properties));
+        return DataSourcePools.createRouting(environment, "db", poolMetrics());
+    }
 
-        return new EmbeddedDatabaseBuilder()
-                .generateUniqueName(true)
-                .setType(H2)
-                .setScriptEncoding("UTF-8")
-                .ignoreFailedDrops(true)
-                .addScript("test.sql")
-                .build();
+    @Bean
+    public Flyway flyway() {
+        Flyway flyway = SchemaMigrations.migrate(environment, "db", dataSource());
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("test.sql"));
+        populator.setSqlScriptEncoding("UTF-8");
+        DatabasePopulatorUtils.execute(populator, dataSource());
+        return flyway;
+    }
+
+    @Bean
+    public PoolMetrics poolMetrics() {
+        return new PoolMetrics();
     }
 
 